@@ -0,0 +1,116 @@
+package com.example.logictrainer;
+
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SdkSuppress;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+// Кадр в установившемся режиме (слой готов, фигура перетаскивается, выведен текст) не должен выделять память.
+// GameView прикреплён к окну с аппаратным ускорением, кадры записываются в RenderNode через View.draw —
+// тем же путём, что и у ThreadedRenderer, но без ожидания vsync, чтобы набрать много кадров.
+// ART учитывает выделения по буферам потоков (TLAB), поэтому проверяется сумма за MEASURED_FRAMES кадров:
+// даже один мелкий объект на кадр дал бы больше MAX_ALLOCATED_BYTES.
+@RunWith(AndroidJUnit4.class)
+@SdkSuppress(minSdkVersion = 29) // RenderNode и RecordingCanvas
+public class GameViewAllocationTest {
+    private static final int WARMUP_FRAMES = 100;
+    private static final int MEASURED_FRAMES = 10_000;
+    private static final long MAX_ALLOCATED_BYTES = 64 * 1024; // Объект в 16 байт на кадр — это 160 КБ
+
+    // Создаются и читаются только в главном потоке
+    private GameView view;
+    private ArrayList<PuzzlePiece> pieces;
+
+    @Test
+    public void steadyStateFrames_doNotAllocate() {
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            scenario.onActivity(activity -> {
+                view = new GameView(activity);
+                LevelManager levelManager = new LevelManager();
+                levelManager.setSeed(1L);
+                view.setGridSize(levelManager.getGridRows(), levelManager.getGridCols());
+                pieces = levelManager.getPiecesForLevel(2);
+                view.setPuzzlePieces(pieces);
+                activity.setContentView(view);
+            });
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync(); // Разметка и первый кадр
+
+            long[] stats = new long[4];
+            scenario.onActivity(activity -> {
+                assertTrue(view.isHardwareAccelerated());
+                startDrag();
+                view.setGameOver(true); // Текст конца игры тоже рисуется каждый кадр
+
+                RenderNode node = new RenderNode("allocation-test");
+                node.setPosition(0, 0, view.getWidth(), view.getHeight());
+                for (int i = 0; i < WARMUP_FRAMES; i++) {
+                    drawFrame(node);
+                }
+
+                Runtime.getRuntime().gc();
+                stats[0] = runtimeStat("art.gc.bytes-allocated");
+                stats[1] = runtimeStat("art.gc.gc-count");
+                for (int i = 0; i < MEASURED_FRAMES; i++) {
+                    drawFrame(node);
+                }
+                stats[2] = runtimeStat("art.gc.bytes-allocated");
+                stats[3] = runtimeStat("art.gc.gc-count");
+                node.discardDisplayList();
+            });
+
+            long allocated = stats[2] - stats[0];
+            assertTrue(allocated + " байт за " + MEASURED_FRAMES + " кадров", allocated < MAX_ALLOCATED_BYTES);
+            assertEquals("сборки мусора во время кадров", stats[1], stats[3]);
+        }
+    }
+
+    // Касание по заполненной клетке верхней фигуры; у Г-образных ориентаций угол рамки бывает пустым
+    private void startDrag() {
+        PuzzlePiece piece = pieces.get(pieces.size() - 1);
+        float cellSize = view.getCellSize();
+        float touchX = -1;
+        float touchY = -1;
+        for (int r = 0; r < piece.getRows() && touchX < 0; r++) {
+            for (int c = 0; c < piece.getCols(); c++) {
+                if (piece.getOrientation().isFilled(r, c)) {
+                    touchX = piece.getX() + (c + 0.5f) * cellSize;
+                    touchY = piece.getY() + (r + 0.5f) * cellSize;
+                    break;
+                }
+            }
+        }
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, touchX, touchY, 0);
+        view.onTouchEvent(down);
+        down.recycle();
+        assertSame("касание должно взять верхнюю фигуру", piece, view.getDraggedPiece());
+    }
+
+    private void drawFrame(RenderNode node) {
+        RecordingCanvas canvas = node.beginRecording(view.getWidth(), view.getHeight());
+        try {
+            view.draw(canvas);
+        } finally {
+            node.endRecording();
+        }
+    }
+
+    private static long runtimeStat(String name) {
+        String value = Debug.getRuntimeStat(name);
+        assertNotNull(name, value);
+        return Long.parseLong(value);
+    }
+}
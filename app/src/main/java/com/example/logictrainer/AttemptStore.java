@@ -0,0 +1,87 @@
+package com.example.logictrainer;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// История попыток (attempts) и сводка по уровням (level_stats) поверх открытой базы.
+// Сводка обновляется в той же транзакции, что и вставка попыток, поэтому статистика пользователя —
+// один запрос по первичному ключу level_stats, без агрегации по истории любой длины.
+// Используется только из потока базы (UserRepository).
+final class AttemptStore {
+    private static final String SQL_INSERT_ATTEMPT =
+            "INSERT INTO attempts (user_id, level, seed, duration_ms, moves, result, finished_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_ENSURE_STATS =
+            "INSERT OR IGNORE INTO level_stats (user_id, level) VALUES (?, ?)";
+    // ?1 — 1 для победы, ?5 — длительность попытки
+    private static final String SQL_UPDATE_STATS =
+            "UPDATE level_stats SET attempts = attempts + 1, wins = wins + ?1, timeouts = timeouts + ?2, "
+                    + "restarts = restarts + ?3, total_win_time_ms = total_win_time_ms + ?4, "
+                    + "best_time_ms = CASE WHEN ?1 = 1 AND (best_time_ms IS NULL OR ?5 < best_time_ms) "
+                    + "THEN ?5 ELSE best_time_ms END "
+                    + "WHERE user_id = ?6 AND level = ?7";
+    private static final String SQL_LOAD_STATS =
+            "SELECT level, attempts, wins, timeouts, restarts, best_time_ms, total_win_time_ms "
+                    + "FROM level_stats WHERE user_id = ? ORDER BY level";
+
+    private final SQLiteDatabase db;
+    private final SQLiteStatement insertAttempt;
+    private final SQLiteStatement ensureStats;
+    private final SQLiteStatement updateStats;
+
+    AttemptStore(SQLiteDatabase db) {
+        this.db = db;
+        insertAttempt = db.compileStatement(SQL_INSERT_ATTEMPT);
+        ensureStats = db.compileStatement(SQL_ENSURE_STATS);
+        updateStats = db.compileStatement(SQL_UPDATE_STATS);
+    }
+
+    // Пачка попыток одной транзакцией: при ошибке не записывается ни одна
+    void insertBatch(List<GameAttempt> attempts) {
+        db.beginTransaction();
+        try {
+            for (GameAttempt attempt : attempts) {
+                insertAttempt.bindLong(1, attempt.getUserId());
+                insertAttempt.bindLong(2, attempt.getLevel());
+                insertAttempt.bindLong(3, attempt.getSeed());
+                insertAttempt.bindLong(4, attempt.getDurationMillis());
+                insertAttempt.bindLong(5, attempt.getMoves());
+                insertAttempt.bindLong(6, attempt.getResult().code);
+                insertAttempt.bindLong(7, attempt.getFinishedAt());
+                insertAttempt.executeInsert();
+
+                ensureStats.bindLong(1, attempt.getUserId());
+                ensureStats.bindLong(2, attempt.getLevel());
+                ensureStats.executeInsert();
+
+                boolean won = attempt.getResult() == GameAttempt.Result.SOLVED;
+                updateStats.bindLong(1, won ? 1 : 0);
+                updateStats.bindLong(2, attempt.getResult() == GameAttempt.Result.TIMED_OUT ? 1 : 0);
+                updateStats.bindLong(3, attempt.getResult() == GameAttempt.Result.RESTARTED ? 1 : 0);
+                updateStats.bindLong(4, won ? attempt.getDurationMillis() : 0);
+                updateStats.bindLong(5, attempt.getDurationMillis());
+                updateStats.bindLong(6, attempt.getUserId());
+                updateStats.bindLong(7, attempt.getLevel());
+                updateStats.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    List<LevelStats> loadStats(int userId) {
+        List<LevelStats> stats = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery(SQL_LOAD_STATS, new String[]{String.valueOf(userId)})) {
+            while (cursor.moveToNext()) {
+                stats.add(new LevelStats(cursor.getInt(0), cursor.getInt(1), cursor.getInt(2), cursor.getInt(3),
+                        cursor.getInt(4), cursor.isNull(5) ? -1 : cursor.getLong(5), cursor.getLong(6)));
+            }
+        }
+        return stats;
+    }
+}
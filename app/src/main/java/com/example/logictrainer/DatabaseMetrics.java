@@ -0,0 +1,26 @@
+package com.example.logictrainer;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+// Измерения базы: открытие соединения со схемой и компиляцией запросов, чтения и записи.
+// Время считается в потоке базы от начала операции до её завершения, ожидание в очереди не входит.
+class DatabaseMetrics {
+    final LatencyHistogram open = new LatencyHistogram("db_open");
+    final LatencyHistogram query = new LatencyHistogram("db_query");
+    final LatencyHistogram write = new LatencyHistogram("db_write");
+
+    private final LatencyHistogram[] all = {open, query, write};
+
+    // Тот же формат, что у GameMetrics.dump, чтобы писать в один файл
+    void dump(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        for (LatencyHistogram h : all) {
+            out.println("# " + h.summaryLine());
+        }
+        for (LatencyHistogram h : all) {
+            h.dumpBuckets(out);
+        }
+        out.flush();
+    }
+}
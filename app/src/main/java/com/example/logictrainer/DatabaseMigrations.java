@@ -0,0 +1,66 @@
+package com.example.logictrainer;
+
+import android.database.sqlite.SQLiteDatabase;
+
+// Пошаговое обновление схемы без потери данных. Шаг MIGRATIONS[i] переводит базу с версии i + 1 на i + 2;
+// при обновлении с версии N выполняются все шаги начиная с N по порядку. Новый шаг дописывается в конец
+// вместе с увеличением DatabaseHelper.DATABASE_VERSION, старые шаги не меняются.
+// SQLiteOpenHelper вызывает onUpgrade в транзакции, так что ошибка любого шага откатывает все.
+final class DatabaseMigrations {
+    interface Migration {
+        void migrate(SQLiteDatabase db);
+    }
+
+    static final String INDEX_USERS_EMAIL = "index_users_email";
+
+    private static final Migration[] MIGRATIONS = {
+            DatabaseMigrations::addUniqueEmailIndex, // 1 -> 2
+            DatabaseMigrations::addAttempts,         // 2 -> 3
+    };
+
+    private DatabaseMigrations() {
+    }
+
+    static int latestVersion() {
+        return MIGRATIONS.length + 1;
+    }
+
+    static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        if (fromVersion < 1 || toVersion > latestVersion() || fromVersion > toVersion) {
+            throw new IllegalArgumentException("Нет пути обновления базы с версии " + fromVersion + " на " + toVersion);
+        }
+        for (int version = fromVersion; version < toVersion; version++) {
+            MIGRATIONS[version - 1].migrate(db);
+        }
+    }
+
+    // Уникальный индекс по email: вход и проверка при регистрации идут по индексу, а не перебором таблицы.
+    // Повторы email (регистрация раньше не была атомарной) сливаются в самую раннюю запись
+    // с наибольшим уровнем среди повторов, иначе индекс не создать.
+    private static void addUniqueEmailIndex(SQLiteDatabase db) {
+        String users = DatabaseHelper.TABLE_USERS;
+        String id = DatabaseHelper.COLUMN_ID;
+        String email = DatabaseHelper.COLUMN_EMAIL;
+        String level = DatabaseHelper.COLUMN_LEVEL;
+        db.execSQL("UPDATE " + users + " SET " + level + " = (SELECT MAX(d." + level + ") FROM " + users
+                + " d WHERE d." + email + " = " + users + "." + email + ") WHERE " + id + " IN (SELECT MIN("
+                + id + ") FROM " + users + " GROUP BY " + email + " HAVING COUNT(*) > 1)");
+        db.execSQL("DELETE FROM " + users + " WHERE " + id + " NOT IN (SELECT MIN(" + id + ") FROM "
+                + users + " GROUP BY " + email + ")");
+        db.execSQL("CREATE UNIQUE INDEX " + INDEX_USERS_EMAIL + " ON " + users + " (" + email + ")");
+    }
+
+    // История попыток и сводка по уровням (AttemptStore). Сводка — WITHOUT ROWID с ключом (user_id, level):
+    // статистика пользователя читается одним проходом по ключу
+    private static void addAttempts(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE attempts (id INTEGER PRIMARY KEY AUTOINCREMENT, user_id INTEGER NOT NULL, "
+                + "level INTEGER NOT NULL, seed INTEGER NOT NULL, duration_ms INTEGER NOT NULL, "
+                + "moves INTEGER NOT NULL, result INTEGER NOT NULL, finished_at INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX index_attempts_user_level ON attempts (user_id, level)");
+        db.execSQL("CREATE TABLE level_stats (user_id INTEGER NOT NULL, level INTEGER NOT NULL, "
+                + "attempts INTEGER NOT NULL DEFAULT 0, wins INTEGER NOT NULL DEFAULT 0, "
+                + "timeouts INTEGER NOT NULL DEFAULT 0, restarts INTEGER NOT NULL DEFAULT 0, "
+                + "best_time_ms INTEGER, total_win_time_ms INTEGER NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (user_id, level)) WITHOUT ROWID");
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.logictrainer;
 
-import android.content.ContentValues;
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.database.sqlite.SQLiteDatabase;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.os.CountDownTimer;
+import android.os.SystemClock;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -13,17 +13,29 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
-public class GameActivity extends AppCompatActivity implements GameView.GameListener {
-    private GameView gameView;
+import com.example.logictrainer.engine.Hint;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+public class GameActivity extends AppCompatActivity implements GameBoardView.GameListener {
+    private GameBoardView gameView; // GameView или GameSurfaceView, в зависимости от activity_game.xml
     private TextView levelTextView;
     private TextView timerTextView;
     private Button restartLevelButton;
+    private Button hintButton;
 
     private LevelManager levelManager;
+    private LevelPipeline levelPipeline;
+    private HintService hintService;
     private CountDownTimer timer;
     private boolean isLevelCompleted = false; // Флаг завершения уровня
+    private long levelStartedAt; // elapsedRealtime начала текущей попытки, 0 — уровень ещё не показан
+    private boolean metricsOverlayVisible = false;
 
-    private DatabaseHelper databaseHelper;
+    private UserRepository userRepository;
+    private MoveJournal moveJournal;
     private int userId;
     private int userLevel;
 
@@ -36,8 +48,12 @@ public class GameActivity extends AppCompatActivity implements GameView.GameList
         timerTextView = findViewById(R.id.timerTextView);
         gameView = findViewById(R.id.gameView);
         restartLevelButton = findViewById(R.id.restartLevelButton);
+        hintButton = findViewById(R.id.hintButton);
 
-        databaseHelper = new DatabaseHelper(this);
+        LogicTrainerApp app = (LogicTrainerApp) getApplication();
+        userRepository = app.getUserRepository();
+        moveJournal = app.getMoveJournal();
+        gameView.setMoveJournal(moveJournal);
 
         // Получаем ID и уровень пользователя из Intent
         Intent intent = getIntent();
@@ -46,33 +62,131 @@ public class GameActivity extends AppCompatActivity implements GameView.GameList
 
         levelManager = new LevelManager();
         levelManager.setCurrentLevel(userLevel);
+        levelManager.setSeed(loadLevelSeed());
+        levelPipeline = new LevelPipeline(levelManager);
+        hintService = new HintService();
 
         restartLevelButton.setOnClickListener(v -> restartLevel());
+        hintButton.setOnClickListener(v -> requestHint());
+
+        // Отладочные измерения: долгое нажатие на номер уровня переключает оверлей и сохраняет гистограммы
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            levelTextView.setOnLongClickListener(v -> {
+                metricsOverlayVisible = !metricsOverlayVisible;
+                gameView.setMetricsOverlayVisible(metricsOverlayVisible);
+                dumpMetrics();
+                return true;
+            });
+        }
 
         startLevel();
     }
 
+    // Seed уровней хранится между запусками, чтобы уровень с тем же номером был тем же самым
+    private long loadLevelSeed() {
+        SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", MODE_PRIVATE);
+        if (!sharedPreferences.contains("level_seed")) {
+            sharedPreferences.edit().putLong("level_seed", levelManager.getSeed()).apply();
+        }
+        return sharedPreferences.getLong("level_seed", levelManager.getSeed());
+    }
+
+    // Гистограммы пишутся в files/frame_metrics.txt (adb shell run-as com.example.logictrainer cat files/frame_metrics.txt)
+    private void dumpMetrics() {
+        GameMetrics metrics = gameView.getMetrics();
+        DatabaseMetrics databaseMetrics = userRepository.getMetrics();
+        File file = new File(getFilesDir(), "frame_metrics.txt");
+        new Thread(() -> {
+            String message;
+            try (FileWriter writer = new FileWriter(file)) {
+                metrics.dump(writer);
+                databaseMetrics.dump(writer);
+                message = "Измерения сохранены: " + file.getAbsolutePath();
+            } catch (IOException e) {
+                message = "Ошибка сохранения измерений";
+            }
+            String result = message;
+            runOnUiThread(() -> Toast.makeText(this, result, Toast.LENGTH_SHORT).show());
+        }, "metrics-dump").start();
+    }
+
     private void startLevel() {
         isLevelCompleted = false; // Сбрасываем флаг завершения уровня
-        gameView.post(() -> {
+        hintService.cancel(); // Подсказка по прежнему уровню уже не нужна
+        int level = levelManager.getCurrentLevel();
+        // Фигуры генерируются в фоне; если уровень был подготовлен заранее, они отдаются сразу
+        levelPipeline.request(level, (pieces, rating) -> gameView.post(() -> {
             gameView.setGameOver(false); // Сбрасываем статус окончания игры
             gameView.setGridSize(levelManager.getGridRows(), levelManager.getGridCols());
-            gameView.setPuzzlePieces(levelManager.getPiecesForCurrentLevel());
+            gameView.setPuzzlePieces(pieces);
             gameView.setGameListener(this);
-            levelTextView.setText(getString(R.string.level_label, levelManager.getCurrentLevel()));
+            levelTextView.setText(getString(R.string.level_label, level));
 
-            startLevelTimer(levelManager.getLevelTimeLimit());
-        });
+            startLevelTimer(rating.getTimeLimitMillis());
+            levelStartedAt = SystemClock.elapsedRealtime();
+            moveJournal.levelStart(userId, level, levelManager.getSeed());
+
+            // Пока идёт этот уровень, готовим следующий
+            levelPipeline.prefetch(level + 1);
+        }));
+    }
+
+    // Подсказка считается в фоне от текущей расстановки игрока
+    private void requestHint() {
+        if (isLevelCompleted) return;
+        gameView.captureHintPosition(position -> hintService.request(position, this::onHint));
+    }
+
+    private void onHint(Hint hint) {
+        if (isLevelCompleted || isFinishing() || isDestroyed()) return;
+        switch (hint.getStatus()) {
+            case PLACEMENT:
+                gameView.showHint(hint);
+                break;
+            case DEAD_END:
+                Toast.makeText(this, "Из этой расстановки решения нет, снимите часть фигур", Toast.LENGTH_SHORT).show();
+                break;
+            case GAVE_UP:
+                Toast.makeText(this, "Не удалось найти подсказку", Toast.LENGTH_SHORT).show();
+                break;
+            default:
+                break;
+        }
     }
 
     private void restartLevel() {
         if (timer != null) {
             timer.cancel();
         }
+        if (!isLevelCompleted) {
+            recordAttempt(GameAttempt.Result.RESTARTED);
+        }
+        levelPipeline.cancel();
         startLevel();
         Toast.makeText(this, "Уровень перезапущен", Toast.LENGTH_SHORT).show();
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        userRepository.flushAttempts(); // Процесс в фоне могут убить, не ждём таймера пачки
+        moveJournal.flush();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (timer != null) {
+            timer.cancel();
+        }
+        if (!isLevelCompleted) {
+            recordAttempt(GameAttempt.Result.ABANDONED);
+            userRepository.flushAttempts();
+        }
+        levelPipeline.shutdown();
+        hintService.shutdown();
+    }
+
     private void startLevelTimer(long timeLimitMillis) {
         if (timer != null) {
             timer.cancel();
@@ -88,6 +202,7 @@ public class GameActivity extends AppCompatActivity implements GameView.GameList
             public void onFinish() {
                 if (!isLevelCompleted && !isFinishing() && !isDestroyed()) {
                     isLevelCompleted = true;
+                    recordAttempt(GameAttempt.Result.TIMED_OUT);
                     gameView.setGameOver(true); // Устанавливаем статус окончания игры
                     timerTextView.setText(getString(R.string.time_up));
                     showGameOverDialog();
@@ -100,6 +215,7 @@ public class GameActivity extends AppCompatActivity implements GameView.GameList
     public void onPuzzleSolved() {
         if (!isLevelCompleted && !isFinishing() && !isDestroyed()) {
             isLevelCompleted = true;
+            recordAttempt(GameAttempt.Result.SOLVED);
             Toast.makeText(this, "Вы выиграли! Переход на следующий уровень.", Toast.LENGTH_SHORT).show();
 
             // Инкремент уровня и сохранение
@@ -112,27 +228,34 @@ public class GameActivity extends AppCompatActivity implements GameView.GameList
     }
 
 
+    // Попытка текущего уровня уходит в историю; запись в базу — пачкой в фоне
+    private void recordAttempt(GameAttempt.Result result) {
+        if (levelStartedAt == 0) return; // Фигуры ещё не пришли, играть было нечего
+        long duration = SystemClock.elapsedRealtime() - levelStartedAt;
+        levelStartedAt = 0;
+        int level = levelManager.getCurrentLevel();
+        int moves = gameView.getMoveCount();
+        moveJournal.levelResult(level, result.code, duration, moves);
+        userRepository.recordAttempt(new GameAttempt(userId, level, levelManager.getSeed(),
+                duration, moves, result, System.currentTimeMillis()));
+    }
+
     private void updateUserLevel(int newLevel) {
         userLevel = newLevel; // Обновляем текущий уровень
         levelManager.setCurrentLevel(newLevel);
 
-        // Обновляем уровень в базе данных
-        SQLiteDatabase db = databaseHelper.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put(DatabaseHelper.COLUMN_LEVEL, newLevel);
-
-        int rowsUpdated = db.update(DatabaseHelper.TABLE_USERS, values,
-                DatabaseHelper.COLUMN_ID + "=?", new String[]{String.valueOf(userId)});
-
-        if (rowsUpdated > 0) {
-            // Также обновляем SharedPreferences
-            SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", MODE_PRIVATE);
-            SharedPreferences.Editor editor = sharedPreferences.edit();
-            editor.putInt("user_level", newLevel);
-            editor.apply();
-        } else {
-            Toast.makeText(this, "Ошибка сохранения уровня", Toast.LENGTH_SHORT).show();
-        }
+        // Уровень пишется в базу в фоне, диалог выигрыша показывается сразу
+        userRepository.saveLevel(userId, newLevel, saved -> {
+            if (saved) {
+                // Также обновляем SharedPreferences
+                SharedPreferences sharedPreferences = getSharedPreferences("user_prefs", MODE_PRIVATE);
+                SharedPreferences.Editor editor = sharedPreferences.edit();
+                editor.putInt("user_level", newLevel);
+                editor.apply();
+            } else if (!isDestroyed()) {
+                Toast.makeText(this, "Ошибка сохранения уровня", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
 
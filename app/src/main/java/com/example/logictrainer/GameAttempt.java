@@ -0,0 +1,46 @@
+package com.example.logictrainer;
+
+// Одна попытка прохождения уровня: чем закончилась, сколько длилась и сколько было ходов
+public final class GameAttempt {
+    public enum Result {
+        SOLVED(0),
+        TIMED_OUT(1),
+        RESTARTED(2),
+        ABANDONED(3); // Экран закрыт посреди уровня
+
+        // Код в таблице attempts; не меняется при переупорядочивании enum
+        final int code;
+
+        Result(int code) {
+            this.code = code;
+        }
+    }
+
+    private final int userId;
+    private final int level;
+    private final long seed;
+    private final long durationMillis;
+    private final int moves;
+    private final Result result;
+    private final long finishedAt;
+
+    public GameAttempt(int userId, int level, long seed, long durationMillis, int moves, Result result, long finishedAt) {
+        this.userId = userId;
+        this.level = level;
+        this.seed = seed;
+        this.durationMillis = durationMillis;
+        this.moves = moves;
+        this.result = result;
+        this.finishedAt = finishedAt;
+    }
+
+    public int getUserId() { return userId; }
+    public int getLevel() { return level; }
+    public long getSeed() { return seed; }
+    public long getDurationMillis() { return durationMillis; }
+    public int getMoves() { return moves; }
+    public Result getResult() { return result; }
+
+    // System.currentTimeMillis() в момент окончания
+    public long getFinishedAt() { return finishedAt; }
+}
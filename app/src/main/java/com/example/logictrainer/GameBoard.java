@@ -0,0 +1,477 @@
+package com.example.logictrainer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.example.logictrainer.engine.Hint;
+import com.example.logictrainer.engine.HintEngine;
+import com.example.logictrainer.engine.PlacementPreview;
+import com.example.logictrainer.engine.PuzzleState;
+import com.example.logictrainer.engine.RegionAnalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Игровое поле без привязки к конкретному View: фигуры, перетаскивание, привязка к сетке и отрисовка кадра.
+// Не потокобезопасно — используется из одного потока: главного в GameView, потока отрисовки в GameSurfaceView.
+class GameBoard {
+    private static final String GAME_OVER_TEXT = "Игра окончена";
+    private static final String DEAD_POSITION_TEXT = "Позицию уже не решить";
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
+    private static final int GHOST_LEGAL_COLOR = Color.argb(110, 0, 230, 0);
+    private static final int GHOST_ILLEGAL_COLOR = Color.argb(110, 230, 0, 0);
+    private static final int DEAD_REGION_COLOR = Color.argb(90, 230, 0, 0);
+
+    private int gridRows = 5;
+    private int gridCols = 5;
+    private int width, height;
+    private float cellSize;
+    private final Paint gridPaint;
+    private final Paint piecePaint;
+    private final Paint gameOverPaint;
+    private final Paint ghostPaint;
+    private ArrayList<PuzzlePiece> puzzlePieces = new ArrayList<>();
+    private PuzzleState state = new PuzzleState(gridRows, gridCols); // Клеточная модель партии из модуля engine
+    private final HitTestIndex hitTestIndex = new HitTestIndex(); // Поиск фигуры под пальцем
+
+    // Статический слой: фон, сетка и все фигуры, кроме перетаскиваемой.
+    // Перерисовывается только после взятия, сброса или поворота фигуры; во время перетаскивания
+    // кадр — это готовый слой плюс одна фигура.
+    private Bitmap staticLayer;
+    private Canvas staticCanvas;
+    private boolean staticLayerDirty = true;
+
+    private PuzzlePiece draggedPiece = null;
+    private float dragOffsetX, dragOffsetY;
+    private float originalX, originalY; // Исходные координаты для возврата
+    private int originalRow, originalCol; // Исходная клетка на поле, -1 если фигура была в лотке
+    private boolean gameOver = false;
+
+    // Ходы партии: фигура поставлена на поле или повёрнута. Пишется только потоком поля,
+    // читается в главном потоке при записи попытки
+    private volatile int moveCount;
+    private MoveJournal journal; // null — действия не журналируются
+
+    // Тень перетаскиваемой фигуры в клетке, куда она встанет: зелёная, если сброс возможен, иначе красная
+    private final PlacementPreview preview = new PlacementPreview();
+
+    // Подсказка: какую фигуру взять (обводится в лотке) и куда поставить (контур в нужной ориентации)
+    private final Paint hintPaint;
+    private PuzzlePiece hintSource;
+    private PuzzlePiece hintTarget;
+
+    // Проверка после каждого хода: пустые области, которые уже не заполнить оставшимися фигурами
+    private RegionAnalyzer regionAnalyzer = new RegionAnalyzer(gridRows, gridCols);
+    private long[] occupiedRows = new long[gridRows];
+    private int[] remainingBySize = new int[1];
+    private boolean deadPosition;
+    private final Paint deadRegionPaint;
+    private final Paint deadPositionPaint;
+
+    // Измерения: время касания, изменившего поле, но ещё не показанного (uptimeMillis, 0 — нет)
+    private final GameMetrics metrics = new GameMetrics();
+    private long pendingInputTime;
+    private boolean overlayVisible;
+    private final Paint overlayPaint;
+    private String[] overlayLines = new String[0];
+    private long overlayUpdatedAt;
+
+    GameBoard() {
+        gridPaint = new Paint();
+        gridPaint.setColor(Color.CYAN);
+        gridPaint.setStrokeWidth(3);
+        gridPaint.setStyle(Paint.Style.STROKE);
+
+        piecePaint = new Paint();
+        piecePaint.setStyle(Paint.Style.FILL);
+
+        gameOverPaint = new Paint();
+        gameOverPaint.setColor(Color.RED);
+        gameOverPaint.setTextSize(60);
+        gameOverPaint.setTextAlign(Paint.Align.CENTER);
+
+        ghostPaint = new Paint();
+        ghostPaint.setStyle(Paint.Style.FILL);
+
+        hintPaint = new Paint();
+        hintPaint.setColor(Color.YELLOW);
+        hintPaint.setStrokeWidth(6);
+        hintPaint.setStyle(Paint.Style.STROKE);
+
+        deadRegionPaint = new Paint();
+        deadRegionPaint.setColor(DEAD_REGION_COLOR);
+        deadRegionPaint.setStyle(Paint.Style.FILL);
+
+        deadPositionPaint = new Paint();
+        deadPositionPaint.setColor(Color.RED);
+        deadPositionPaint.setTextSize(40);
+        deadPositionPaint.setTextAlign(Paint.Align.CENTER);
+
+        overlayPaint = new Paint();
+        overlayPaint.setColor(Color.YELLOW);
+        overlayPaint.setTextSize(28);
+    }
+
+    void setSize(int width, int height) {
+        if (width == this.width && height == this.height) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        releaseStaticLayer(); // Слой нужного размера создастся при следующей отрисовке
+        updateCellSize();
+    }
+
+    void setGridSize(int rows, int cols) {
+        this.gridRows = rows;
+        this.gridCols = cols;
+        this.state = new PuzzleState(rows, cols);
+        regionAnalyzer = new RegionAnalyzer(rows, cols);
+        occupiedRows = new long[rows];
+        deadPosition = false;
+        updateCellSize();
+        staticLayerDirty = true;
+    }
+
+    void setPuzzlePieces(ArrayList<PuzzlePiece> pieces) {
+        this.puzzlePieces = pieces;
+        state.reset(pieces);
+        draggedPiece = null;
+        preview.clear();
+        clearHint();
+        deadPosition = false;
+        moveCount = 0;
+        int maxSize = 0;
+        for (PuzzlePiece piece : pieces) {
+            maxSize = Math.max(maxSize, piece.getCellCount());
+        }
+        remainingBySize = new int[maxSize + 1];
+
+        float startX = 50;
+        float startY = gridRows * cellSize + 20;
+
+        for (PuzzlePiece piece : pieces) {
+            piece.setPosition(startX, startY);
+            startX += piece.getShape()[0].length * cellSize + 20;
+
+            if (startX + piece.getShape()[0].length * cellSize > width) {
+                startX = 50;
+                startY += piece.getShape().length * cellSize + 20;
+            }
+
+            if (startY + piece.getShape().length * cellSize > height) {
+                startY = gridRows * cellSize + 20;
+            }
+        }
+        hitTestIndex.reset(pieces, width, height, cellSize);
+        staticLayerDirty = true;
+    }
+
+    void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
+    // Отладочный оверлей со сводкой измерений; строки обновляются не чаще двух раз в секунду
+    void setMetricsOverlayVisible(boolean visible) {
+        this.overlayVisible = visible;
+        overlayUpdatedAt = 0;
+    }
+
+    boolean isGameOver() { return gameOver; }
+    GameMetrics getMetrics() { return metrics; }
+    int getMoveCount() { return moveCount; }
+
+    void setMoveJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+    float getCellSize() { return cellSize; }
+    PuzzlePiece getDraggedPiece() { return draggedPiece; }
+
+    float getGhostX() { return preview.getCol() * cellSize; }
+    float getGhostY() { return preview.getRow() * cellSize; }
+
+    // Снимок позиции для HintEngine; вызывается в потоке, которому принадлежит поле
+    HintEngine.Position captureHintPosition() {
+        return HintEngine.Position.capture(state);
+    }
+
+    // Показывает подсказку на свободной фигуре нужной формы; false, если показать нечего
+    boolean showHint(Hint hint) {
+        clearHint();
+        if (hint.getStatus() != Hint.Status.PLACEMENT) {
+            return false;
+        }
+        for (int i = puzzlePieces.size() - 1; i >= 0; i--) {
+            PuzzlePiece piece = puzzlePieces.get(i);
+            if (!piece.isOnBoard() && piece != draggedPiece && piece.getPieceShape() == hint.getShape()) {
+                hintSource = piece;
+                hintTarget = new PuzzlePiece(hint.getShape(), hint.getOrientationIndex(), piece.getColor());
+                hintTarget.setPosition(hint.getCol() * cellSize, hint.getRow() * cellSize);
+                return true;
+            }
+        }
+        return false; // Поле изменилось, пока подсказка считалась
+    }
+
+    void clearHint() {
+        hintSource = null;
+        hintTarget = null;
+    }
+
+    // Касание с временем eventTimeMillis (MotionEvent.getEventTime) изменило поле; задержка
+    // считается до конца ближайшей отрисовки, для пачки событий — от самого раннего
+    void markInput(long eventTimeMillis) {
+        if (pendingInputTime == 0) {
+            pendingInputTime = eventTimeMillis;
+        }
+    }
+
+    // Берёт верхнюю фигуру под пальцем; false, если под пальцем пусто
+    boolean touchDown(float x, float y) {
+        PuzzlePiece touched = hitTestIndex.findTopmost(x, y);
+        if (touched == null) {
+            return false;
+        }
+        draggedPiece = touched;
+        clearHint(); // Игрок начал ход — подсказка больше не нужна
+        deadPosition = false; // Фигура снята с поля — прежние области уже неактуальны
+        dragOffsetX = x - touched.getX();
+        dragOffsetY = y - touched.getY();
+        originalX = touched.getX(); // Сохраняем исходные координаты
+        originalY = touched.getY();
+        originalRow = touched.getCellRow();
+        originalCol = touched.getCellCol();
+        if (journal != null) {
+            journal.pickUp(state.getPieces().indexOf(touched), originalRow, originalCol);
+        }
+        state.lift(touched);
+        puzzlePieces.remove(touched);
+        puzzlePieces.add(touched);
+        hitTestIndex.bringToFront(touched);
+        preview.invalidate();
+        preview.update(state, touched, touched.getX(), touched.getY(), cellSize);
+        staticLayerDirty = true; // Фигура переходит из слоя в отдельную отрисовку
+        return true;
+    }
+
+    // true, если тень сменила клетку или цвет
+    boolean dragTo(float x, float y) {
+        if (draggedPiece == null) {
+            return false;
+        }
+        draggedPiece.setPosition(x - dragOffsetX, y - dragOffsetY);
+        return preview.update(state, draggedPiece, draggedPiece.getX(), draggedPiece.getY(), cellSize);
+    }
+
+    // Отпускает фигуру; true, если после этого головоломка собрана
+    boolean touchUp() {
+        if (draggedPiece == null) {
+            return false;
+        }
+        long snapStart = System.nanoTime();
+        boolean snapped = trySnapToGrid(draggedPiece);
+        metrics.snapToGrid.recordNanos(System.nanoTime() - snapStart);
+        if (journal != null) {
+            // Фигура уже привязана к клетке сброса, даже если встать туда не смогла
+            journal.drop(state.getPieces().indexOf(draggedPiece),
+                    toCell(draggedPiece.getY()), toCell(draggedPiece.getX()), snapped);
+        }
+        if (snapped) {
+            moveCount++;
+        } else {
+            returnDraggedPiece(); // Вставка невозможна
+        }
+        draggedPiece = null;
+        preview.clear();
+        staticLayerDirty = true; // Фигура возвращается в статический слой
+
+        long regionStart = System.nanoTime();
+        checkDeadRegions();
+        metrics.deadRegionCheck.recordNanos(System.nanoTime() - regionStart);
+
+        long checkStart = System.nanoTime();
+        boolean solved = checkPuzzleSolved();
+        metrics.solvedCheck.recordNanos(System.nanoTime() - checkStart);
+        return solved;
+    }
+
+    // Жест отменён системой (ACTION_CANCEL): фигура возвращается, как при отклонённом сбросе
+    void touchCancel() {
+        if (draggedPiece == null) {
+            return;
+        }
+        if (journal != null) {
+            journal.drop(state.getPieces().indexOf(draggedPiece), originalRow, originalCol, false);
+        }
+        returnDraggedPiece();
+        draggedPiece = null;
+        preview.clear();
+        staticLayerDirty = true;
+        checkDeadRegions();
+    }
+
+    // Возвращаем фигуру на исходное место; на поле она снова занимает свои клетки
+    private void returnDraggedPiece() {
+        draggedPiece.setPosition(originalX, originalY);
+        if (originalRow >= 0) {
+            state.drop(draggedPiece, originalRow, originalCol);
+        }
+    }
+
+    boolean rotateAt(float x, float y) {
+        PuzzlePiece piece = hitTestIndex.findTopmost(x, y);
+        if (piece == null) {
+            return false;
+        }
+        boolean rotated = state.rotate(piece);
+        if (rotated) {
+            moveCount++;
+        }
+        if (journal != null) {
+            journal.rotate(state.getPieces().indexOf(piece), piece.getOrientationIndex(), rotated);
+        }
+        checkDeadRegions();
+        staticLayerDirty = true;
+        return true;
+    }
+
+    void draw(Canvas canvas) {
+        long drawStart = System.nanoTime();
+
+        if (staticCanvas == null && width > 0 && height > 0) {
+            staticLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            staticCanvas = new Canvas(staticLayer);
+            staticLayerDirty = true;
+        }
+
+        if (staticCanvas != null) {
+            if (staticLayerDirty) {
+                drawStaticContent(staticCanvas);
+                staticLayerDirty = false;
+            }
+            canvas.drawBitmap(staticLayer, 0, 0, null);
+        } else {
+            drawStaticContent(canvas); // Слой ещё не создан (нулевой размер)
+        }
+
+        if (hintTarget != null) {
+            hintTarget.drawAt(canvas, hintPaint, cellSize, hintTarget.getX(), hintTarget.getY());
+            hintSource.drawAt(canvas, hintPaint, cellSize, hintSource.getX(), hintSource.getY());
+        }
+
+        if (draggedPiece != null) {
+            if (preview.isVisible()) {
+                ghostPaint.setColor(preview.isLegal() ? GHOST_LEGAL_COLOR : GHOST_ILLEGAL_COLOR);
+                draggedPiece.drawAt(canvas, ghostPaint, cellSize, getGhostX(), getGhostY());
+            }
+            draggedPiece.draw(canvas, piecePaint, cellSize);
+        }
+
+        if (gameOver) {
+            canvas.drawText(GAME_OVER_TEXT, width / 2f, height / 2f, gameOverPaint);
+        }
+
+        // uptimeMillis событий и System.nanoTime на Android идут от одних монотонных часов
+        long drawEnd = System.nanoTime();
+        metrics.frameDraw.recordNanos(drawEnd - drawStart);
+        if (pendingInputTime != 0) {
+            metrics.touchToFrame.recordNanos(drawEnd - pendingInputTime * 1_000_000L);
+            pendingInputTime = 0;
+        }
+
+        if (overlayVisible) {
+            drawOverlay(canvas, drawEnd);
+        }
+    }
+
+    private void drawOverlay(Canvas canvas, long now) {
+        if (now - overlayUpdatedAt > OVERLAY_REFRESH_NANOS) {
+            overlayLines = metrics.summaryLines();
+            overlayUpdatedAt = now;
+        }
+        float lineHeight = overlayPaint.getTextSize() * 1.3f;
+        for (int i = 0; i < overlayLines.length; i++) {
+            canvas.drawText(overlayLines[i], 10, height - (overlayLines.length - i) * lineHeight, overlayPaint);
+        }
+    }
+
+    void releaseStaticLayer() {
+        if (staticLayer != null) {
+            staticLayer.recycle();
+            staticLayer = null;
+            staticCanvas = null;
+        }
+    }
+
+    private void updateCellSize() {
+        float newCellSize = Math.min((float) width / gridCols, (float) height / gridRows);
+        if (newCellSize != cellSize) {
+            cellSize = newCellSize;
+            hitTestIndex.reset(puzzlePieces, width, height, cellSize);
+            staticLayerDirty = true;
+        }
+    }
+
+    private void drawStaticContent(Canvas canvas) {
+        canvas.drawColor(Color.BLACK);
+
+        for (int i = 0; i <= gridRows; i++) {
+            canvas.drawLine(0, i * cellSize, gridCols * cellSize, i * cellSize, gridPaint);
+        }
+        for (int j = 0; j <= gridCols; j++) {
+            canvas.drawLine(j * cellSize, 0, j * cellSize, gridRows * cellSize, gridPaint);
+        }
+
+        if (deadPosition) {
+            for (int r = 0; r < gridRows; r++) {
+                for (int c = 0; c < gridCols; c++) {
+                    if (regionAnalyzer.isDead(r, c)) {
+                        canvas.drawRect(c * cellSize, r * cellSize, (c + 1) * cellSize, (r + 1) * cellSize, deadRegionPaint);
+                    }
+                }
+            }
+        }
+
+        for (PuzzlePiece piece : puzzlePieces) {
+            if (piece != draggedPiece) {
+                piece.draw(canvas, piecePaint, cellSize);
+            }
+        }
+
+        if (deadPosition) {
+            canvas.drawText(DEAD_POSITION_TEXT, gridCols * cellSize / 2f, gridRows * cellSize / 2f, deadPositionPaint);
+        }
+    }
+
+    private boolean trySnapToGrid(PuzzlePiece piece) {
+        int row = toCell(piece.getY());
+        int col = toCell(piece.getX());
+
+        piece.setPosition(col * cellSize, row * cellSize);
+
+        return state.drop(piece, row, col);
+    }
+
+    // Размеры фигур вне поля против пустых областей поля; без выделения памяти
+    private void checkDeadRegions() {
+        Arrays.fill(remainingBySize, 0);
+        for (PuzzlePiece piece : puzzlePieces) {
+            if (!piece.isOnBoard()) {
+                remainingBySize[piece.getCellCount()]++;
+            }
+        }
+        state.getBoard().copyRowMasks(occupiedRows);
+        deadPosition = regionAnalyzer.findDeadRegions(occupiedRows, remainingBySize);
+    }
+
+    private boolean checkPuzzleSolved() {
+        return state.isSolved();
+    }
+
+    // Индекс клетки по координате; округление защищает от погрешности float после привязки к сетке
+    private int toCell(float coordinate) {
+        return Math.round(coordinate / cellSize);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.logictrainer;
+
+import com.example.logictrainer.engine.Hint;
+import com.example.logictrainer.engine.HintEngine;
+
+import java.util.ArrayList;
+
+// Игровое поле для GameActivity: GameView рисует в главном потоке, GameSurfaceView — в своём потоке.
+// Реализация выбирается тегом в activity_game.xml.
+public interface GameBoardView {
+    interface GameListener {
+        void onPuzzleSolved();
+    }
+
+    interface PositionCallback {
+        void onPosition(HintEngine.Position position);
+    }
+
+    void setGameListener(GameListener listener);
+
+    void setGridSize(int rows, int cols);
+
+    void setPuzzlePieces(ArrayList<PuzzlePiece> pieces);
+
+    void setGameOver(boolean gameOver);
+
+    // Снимок позиции для подсказки; колбэк вызывается в потоке, которому принадлежит поле
+    void captureHintPosition(PositionCallback callback);
+
+    // Показывает подсказку; вызывается из главного потока
+    void showHint(Hint hint);
+
+    // Журнал взятий, сбросов и поворотов; null отключает
+    void setMoveJournal(MoveJournal journal);
+
+    // Ходы в текущей партии; можно вызывать из главного потока
+    int getMoveCount();
+
+    // Отладочные измерения кадров и касаний
+    GameMetrics getMetrics();
+
+    void setMetricsOverlayVisible(boolean visible);
+
+    // Выполнить в главном потоке после разметки (реализуется View.post)
+    boolean post(Runnable action);
+}
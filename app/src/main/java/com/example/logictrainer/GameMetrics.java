@@ -0,0 +1,38 @@
+package com.example.logictrainer;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+// Измерения отзывчивости поля: длительность кадра, задержка от касания до кадра, привязка к сетке,
+// проверка решения и поиск незаполнимых областей. Запись идёт из потока отрисовки, чтение и выгрузка —
+// из любого потока.
+class GameMetrics {
+    final LatencyHistogram frameDraw = new LatencyHistogram("frame_draw");
+    final LatencyHistogram touchToFrame = new LatencyHistogram("touch_to_frame");
+    final LatencyHistogram snapToGrid = new LatencyHistogram("snap_to_grid");
+    final LatencyHistogram solvedCheck = new LatencyHistogram("solved_check");
+    final LatencyHistogram deadRegionCheck = new LatencyHistogram("dead_region_check");
+
+    private final LatencyHistogram[] all = {frameDraw, touchToFrame, snapToGrid, solvedCheck, deadRegionCheck};
+
+    // Одна строка на гистограмму для оверлея
+    String[] summaryLines() {
+        String[] lines = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            lines[i] = all[i].summaryLine();
+        }
+        return lines;
+    }
+
+    // Текстовая выгрузка: сводка и ненулевые корзины "имя нижняя_граница_мкс количество"
+    void dump(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        for (String line : summaryLines()) {
+            out.println("# " + line);
+        }
+        for (LatencyHistogram h : all) {
+            h.dumpBuckets(out);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.logictrainer;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.example.logictrainer.engine.Hint;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// То же поле, что и GameView, но отрисовка и обработка касаний идут в отдельном потоке.
+// Главный поток только складывает касания в TouchEventQueue; поток отрисовки разбирает их
+// в начале кадра по сигналу vsync от Choreographer, так что таймер, тосты и диалоги
+// в главном потоке не задерживают перетаскивание.
+public class GameSurfaceView extends SurfaceView implements GameBoardView, SurfaceHolder.Callback {
+    private static final int TOUCH_QUEUE_CAPACITY = 512;
+
+    private final GameBoard board = new GameBoard(); // Используется только в потоке отрисовки
+    private final TouchEventQueue touchQueue = new TouchEventQueue(TOUCH_QUEUE_CAPACITY);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Поток отрисовки живёт, пока вид прикреплён к окну; открепление его останавливает, а повторное
+    // прикрепление или любое обращение к полю из главного потока запускает новый (renderHandler())
+    private HandlerThread renderThread;
+    private Handler renderHandler;
+    private HandlerThread retiredThread; // Остановленный, но, возможно, ещё дорабатывающий очередь поток
+    private Choreographer choreographer; // Choreographer потока отрисовки
+
+    // Поля ниже меняются только в потоке отрисовки
+    private boolean surfaceReady;
+    private boolean frameDirty = true;
+    private boolean frameScheduled;
+    private final TouchPredictor touchPredictor = new TouchPredictor();
+    private boolean movePending; // Есть точки перемещения, ещё не применённые к фигуре
+
+    private final AtomicBoolean wakeupPosted = new AtomicBoolean();
+    private volatile boolean gameOver; // Копия для отсева касаний в главном потоке
+    private volatile GameListener gameListener;
+    private GestureDetector gestureDetector;
+
+    private final Choreographer.FrameCallback frameCallback = this::doFrame;
+    private final Runnable wakeup = () -> {
+        wakeupPosted.set(false);
+        scheduleFrame();
+    };
+
+    public GameSurfaceView(Context context) {
+        super(context);
+        init(context);
+    }
+
+    public GameSurfaceView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init(context);
+    }
+
+    public GameSurfaceView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init(context);
+    }
+
+    private void init(Context context) {
+        getHolder().addCallback(this);
+
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDoubleTap(MotionEvent e) {
+                enqueue(TouchEventQueue.ACTION_DOUBLE_TAP, e.getX(), e.getY(), e.getEventTime());
+                return true;
+            }
+        });
+    }
+
+    // Только из главного потока
+    private Handler renderHandler() {
+        if (renderHandler == null) {
+            renderThread = new HandlerThread("game-render", Process.THREAD_PRIORITY_DISPLAY);
+            renderThread.start();
+            renderHandler = new Handler(renderThread.getLooper());
+            wakeupPosted.set(false); // Пробуждение могло уйти в остановленный поток
+            HandlerThread previous = retiredThread;
+            retiredThread = null;
+            renderHandler.post(() -> {
+                if (previous != null) {
+                    awaitRetired(previous);
+                }
+                choreographer = Choreographer.getInstance();
+                invalidateFrame();
+            });
+        }
+        return renderHandler;
+    }
+
+    // В новом потоке отрисовки: прежний дорабатывает короткие задачи очереди, после join его запись в поле видна
+    private static void awaitRetired(HandlerThread previous) {
+        try {
+            previous.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void setGameListener(GameListener listener) {
+        this.gameListener = listener;
+    }
+
+    // Изменения партии приходят из главного потока и применяются в потоке отрисовки
+    public void setGridSize(int rows, int cols) {
+        renderHandler().post(() -> {
+            board.setGridSize(rows, cols);
+            invalidateFrame();
+        });
+    }
+
+    public void setPuzzlePieces(ArrayList<PuzzlePiece> pieces) {
+        renderHandler().post(() -> {
+            board.setPuzzlePieces(pieces);
+            invalidateFrame();
+        });
+    }
+
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+        renderHandler().post(() -> {
+            board.setGameOver(gameOver);
+            invalidateFrame();
+        });
+    }
+
+    public void captureHintPosition(PositionCallback callback) {
+        renderHandler().post(() -> callback.onPosition(board.captureHintPosition()));
+    }
+
+    public void showHint(Hint hint) {
+        renderHandler().post(() -> {
+            if (board.showHint(hint)) {
+                invalidateFrame();
+            }
+        });
+    }
+
+    public void setMoveJournal(MoveJournal journal) {
+        renderHandler().post(() -> board.setMoveJournal(journal));
+    }
+
+    public int getMoveCount() {
+        return board.getMoveCount(); // Счётчик volatile, чтение из главного потока безопасно
+    }
+
+    public GameMetrics getMetrics() {
+        return board.getMetrics(); // Гистограммы читаются без блокировок из любого потока
+    }
+
+    public void setMetricsOverlayVisible(boolean visible) {
+        renderHandler().post(() -> {
+            board.setMetricsOverlayVisible(visible);
+            invalidateFrame();
+        });
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        renderHandler().post(() -> {
+            surfaceReady = true;
+            invalidateFrame();
+        });
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        renderHandler().post(() -> {
+            board.setSize(width, height);
+            invalidateFrame();
+        });
+    }
+
+    // После возврата из этого метода рисовать в поверхность нельзя: ждём, пока поток отрисовки остановится
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        if (renderHandler == null) {
+            // Поток отрисовки уже остановлен и дождан, состояние можно менять прямо отсюда
+            surfaceReady = false;
+            board.releaseStaticLayer();
+            return;
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        renderHandler.post(() -> {
+            surfaceReady = false;
+            board.releaseStaticLayer();
+            stopped.countDown();
+        });
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        Handler handler = renderHandler();
+        Display display = getDisplay();
+        if (display != null && display.getRefreshRate() > 0) {
+            float frameInterval = 1000f / display.getRefreshRate();
+            handler.post(() -> touchPredictor.setFrameIntervalMillis(frameInterval));
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (renderHandler == null) return;
+        renderHandler.post(() -> {
+            if (choreographer != null) {
+                choreographer.removeFrameCallback(frameCallback);
+                choreographer = null;
+            }
+            frameScheduled = false; // Новый поток запросит кадр заново
+        });
+        // Главный поток не ждёт: конец прежнего потока дождётся следующий перед первым обращением к полю
+        renderThread.quitSafely();
+        retiredThread = renderThread;
+        renderThread = null;
+        renderHandler = null;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (gameOver) return true;
+
+        gestureDetector.onTouchEvent(event);
+
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                enqueue(TouchEventQueue.ACTION_DOWN, event.getX(), event.getY(), event.getEventTime());
+                break;
+            case MotionEvent.ACTION_MOVE:
+                // Исторические точки пачки тоже уходят в очередь: по ним поток отрисовки оценивает скорость
+                for (int h = 0; h < event.getHistorySize(); h++) {
+                    enqueue(TouchEventQueue.ACTION_MOVE, event.getHistoricalX(h), event.getHistoricalY(h),
+                            event.getHistoricalEventTime(h));
+                }
+                enqueue(TouchEventQueue.ACTION_MOVE, event.getX(), event.getY(), event.getEventTime());
+                break;
+            case MotionEvent.ACTION_UP:
+                enqueue(TouchEventQueue.ACTION_UP, event.getX(), event.getY(), event.getEventTime());
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                enqueue(TouchEventQueue.ACTION_CANCEL, event.getX(), event.getY(), event.getEventTime());
+                break;
+        }
+        return true;
+    }
+
+    // Главный поток: кладёт касание в очередь и будит поток отрисовки, если кадр ещё не запрошен
+    private void enqueue(int action, float x, float y, long eventTime) {
+        // При переполнении теряются только перемещения и двойные касания: для UP и CANCEL очередь
+        // держит резервный слот, так что поднятая фигура не останется висеть
+        touchQueue.offer(action, x, y, eventTime);
+        if (wakeupPosted.compareAndSet(false, true)) {
+            renderHandler().post(wakeup);
+        }
+    }
+
+    private void flushPendingMove() {
+        if (movePending) {
+            movePending = false;
+            board.dragTo(touchPredictor.getLastX(), touchPredictor.getLastY());
+            frameDirty = true;
+        }
+    }
+
+    private void invalidateFrame() {
+        frameDirty = true;
+        scheduleFrame();
+    }
+
+    private void scheduleFrame() {
+        if (!frameScheduled && choreographer != null) {
+            frameScheduled = true;
+            choreographer.postFrameCallback(frameCallback);
+        }
+    }
+
+    // Кадр по vsync: разбираем накопленные касания, затем рисуем, если что-то изменилось.
+    // Перемещения сливаются: фигура сдвигается один раз за кадр в прогнозное положение к следующему vsync.
+    private void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        boolean solved = false;
+
+        while (touchQueue.poll()) {
+            float x = touchQueue.getX();
+            float y = touchQueue.getY();
+            int action = touchQueue.getAction();
+            if (action == TouchEventQueue.ACTION_MOVE) {
+                if (board.getDraggedPiece() != null) {
+                    touchPredictor.addSample(x, y, touchQueue.getEventTime());
+                    board.markInput(touchQueue.getEventTime());
+                    movePending = true;
+                }
+                continue;
+            }
+
+            flushPendingMove(); // Прочие события видят фигуру в фактическом положении пальца
+            boolean changed = false;
+            switch (action) {
+                case TouchEventQueue.ACTION_DOUBLE_TAP:
+                    changed = board.rotateAt(x, y);
+                    break;
+                case TouchEventQueue.ACTION_DOWN:
+                    touchPredictor.reset();
+                    changed = board.touchDown(x, y);
+                    if (changed) {
+                        touchPredictor.addSample(x, y, touchQueue.getEventTime());
+                    }
+                    break;
+                case TouchEventQueue.ACTION_UP:
+                    if (board.getDraggedPiece() != null) {
+                        board.dragTo(x, y);
+                        solved |= board.touchUp();
+                        changed = true;
+                    }
+                    break;
+                case TouchEventQueue.ACTION_CANCEL:
+                    if (board.getDraggedPiece() != null) {
+                        board.touchCancel();
+                        changed = true;
+                    }
+                    break;
+            }
+            if (changed) {
+                board.markInput(touchQueue.getEventTime());
+                frameDirty = true;
+            }
+        }
+
+        if (movePending) {
+            movePending = false;
+            touchPredictor.predict(frameTimeNanos / 1_000_000L);
+            board.dragTo(touchPredictor.getPredictedX(), touchPredictor.getPredictedY());
+            frameDirty = true;
+        }
+
+        if (frameDirty && surfaceReady) {
+            Canvas canvas = getHolder().lockHardwareCanvas();
+            if (canvas != null) {
+                try {
+                    board.draw(canvas);
+                } finally {
+                    getHolder().unlockCanvasAndPost(canvas);
+                }
+                frameDirty = false;
+            }
+        }
+
+        GameListener listener = gameListener;
+        if (solved && listener != null) {
+            mainHandler.postDelayed(listener::onPuzzleSolved, 500);
+        }
+
+        // Касания, пришедшие во время кадра, обработаются в следующем
+        if (!touchQueue.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+}
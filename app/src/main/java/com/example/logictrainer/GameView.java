@@ -2,35 +2,28 @@ package com.example.logictrainer;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.util.AttributeSet;
+import android.view.Display;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 
-import java.util.ArrayList;
+import com.example.logictrainer.engine.Hint;
 
-public class GameView extends View {
-    private int gridRows = 5;
-    private int gridCols = 5;
-    private float cellSize;
-    private Paint gridPaint;
-    private Paint piecePaint;
-    private ArrayList<PuzzlePiece> puzzlePieces = new ArrayList<>();
+import java.util.ArrayList;
 
-    private PuzzlePiece draggedPiece = null;
-    private float dragOffsetX, dragOffsetY;
-    private float originalX, originalY; // Исходные координаты для возврата
-    private boolean gameOver = false;
+public class GameView extends View implements GameBoardView {
+    private final GameBoard board = new GameBoard(); // Поле, фигуры и отрисовка кадра
 
     private GameListener gameListener;
     private GestureDetector gestureDetector;
 
-    public interface GameListener {
-        void onPuzzleSolved();
-    }
+    // Перемещение копится между кадрами и применяется один раз перед отрисовкой
+    private final TouchPredictor touchPredictor = new TouchPredictor();
+    private boolean movePending;
+    private final Runnable applyMove = this::applyPendingMove;
 
     public void setGameListener(GameListener listener) {
         this.gameListener = listener;
@@ -52,94 +45,96 @@ public class GameView extends View {
     }
 
     private void init(Context context) {
-        gridPaint = new Paint();
-        gridPaint.setColor(Color.CYAN);
-        gridPaint.setStrokeWidth(3);
-        gridPaint.setStyle(Paint.Style.STROKE);
-
-        piecePaint = new Paint();
-        piecePaint.setStyle(Paint.Style.FILL);
-
         gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
             @Override
             public boolean onDoubleTap(MotionEvent e) {
-                handleDoubleTap(e.getX(), e.getY());
+                handleDoubleTap(e.getX(), e.getY(), e.getEventTime());
                 return true;
             }
         });
     }
 
     public void setGridSize(int rows, int cols) {
-        this.gridRows = rows;
-        this.gridCols = cols;
+        board.setGridSize(rows, cols);
         invalidate();
     }
 
     public void setPuzzlePieces(ArrayList<PuzzlePiece> pieces) {
-        this.puzzlePieces = pieces;
+        board.setPuzzlePieces(pieces);
+        invalidate();
+    }
 
-        if (cellSize <= 0) {
-            cellSize = Math.min(getWidth() / gridCols, getHeight() / gridRows);
-        }
+    public void setGameOver(boolean gameOver) {
+        board.setGameOver(gameOver);
+        invalidate();
+    }
 
-        float startX = 50;
-        float startY = gridRows * cellSize + 20;
+    public void captureHintPosition(PositionCallback callback) {
+        callback.onPosition(board.captureHintPosition());
+    }
 
-        for (PuzzlePiece piece : pieces) {
-            piece.setPosition(startX, startY);
-            startX += piece.getShape()[0].length * cellSize + 20;
+    public void showHint(Hint hint) {
+        if (board.showHint(hint)) {
+            invalidate();
+        }
+    }
 
-            if (startX + piece.getShape()[0].length * cellSize > getWidth()) {
-                startX = 50;
-                startY += piece.getShape().length * cellSize + 20;
-            }
+    public void setMoveJournal(MoveJournal journal) {
+        board.setMoveJournal(journal);
+    }
 
-            if (startY + piece.getShape().length * cellSize > getHeight()) {
-                startY = gridRows * cellSize + 20;
-            }
-        }
-        invalidate();
+    public int getMoveCount() {
+        return board.getMoveCount();
     }
 
-    public void setGameOver(boolean gameOver) {
-        this.gameOver = gameOver;
-        invalidate();
+    public GameMetrics getMetrics() {
+        return board.getMetrics();
     }
 
-    @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    // Для инструментальных тестов
+    PuzzlePiece getDraggedPiece() {
+        return board.getDraggedPiece();
+    }
 
-        canvas.drawColor(Color.BLACK);
+    float getCellSize() {
+        return board.getCellSize();
+    }
 
-        float width = getWidth();
-        float height = getHeight();
+    public void setMetricsOverlayVisible(boolean visible) {
+        board.setMetricsOverlayVisible(visible);
+        invalidate();
+    }
 
-        cellSize = Math.min(width / gridCols, height / gridRows);
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        board.setSize(w, h);
+    }
 
-        for (int i = 0; i <= gridRows; i++) {
-            canvas.drawLine(0, i * cellSize, gridCols * cellSize, i * cellSize, gridPaint);
-        }
-        for (int j = 0; j <= gridCols; j++) {
-            canvas.drawLine(j * cellSize, 0, j * cellSize, gridRows * cellSize, gridPaint);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        Display display = getDisplay();
+        if (display != null && display.getRefreshRate() > 0) {
+            touchPredictor.setFrameIntervalMillis(1000f / display.getRefreshRate());
         }
+    }
 
-        for (PuzzlePiece piece : puzzlePieces) {
-            piece.draw(canvas, piecePaint, cellSize);
-        }
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        board.releaseStaticLayer();
+    }
 
-        if (gameOver) {
-            Paint textPaint = new Paint();
-            textPaint.setColor(Color.RED);
-            textPaint.setTextSize(60);
-            textPaint.setTextAlign(Paint.Align.CENTER);
-            canvas.drawText("Игра окончена", width / 2, height / 2, textPaint);
-        }
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        board.draw(canvas);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (gameOver) return true;
+        if (board.isGameOver()) return true;
 
         gestureDetector.onTouchEvent(event);
 
@@ -148,140 +143,77 @@ public class GameView extends View {
 
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
-                for (int i = puzzlePieces.size() - 1; i >= 0; i--) {
-                    PuzzlePiece piece = puzzlePieces.get(i);
-                    if (piece.contains(x, y, cellSize)) {
-                        draggedPiece = piece;
-                        dragOffsetX = x - piece.getX();
-                        dragOffsetY = y - piece.getY();
-                        originalX = piece.getX(); // Сохраняем исходные координаты
-                        originalY = piece.getY();
-                        puzzlePieces.remove(piece);
-                        puzzlePieces.add(piece);
-                        break;
-                    }
+                touchPredictor.reset();
+                movePending = false;
+                if (board.touchDown(x, y)) {
+                    touchPredictor.addSample(x, y, event.getEventTime());
+                    board.markInput(event.getEventTime());
+                    invalidate(); // Фигура переходит из статического слоя в отдельную отрисовку
                 }
                 break;
 
             case MotionEvent.ACTION_MOVE:
-                if (draggedPiece != null) {
-                    draggedPiece.setPosition(x - dragOffsetX, y - dragOffsetY);
-                    invalidate();
+                if (board.getDraggedPiece() != null) {
+                    // Все точки пачки, включая исторические, идут в оценку скорости за один проход;
+                    // на экран попадёт только положение к следующему кадру
+                    int historySize = event.getHistorySize();
+                    for (int h = 0; h < historySize; h++) {
+                        touchPredictor.addSample(event.getHistoricalX(h), event.getHistoricalY(h),
+                                event.getHistoricalEventTime(h));
+                    }
+                    touchPredictor.addSample(x, y, event.getEventTime());
+                    board.markInput(historySize > 0 ? event.getHistoricalEventTime(0) : event.getEventTime());
+                    if (!movePending) {
+                        movePending = true;
+                        postOnAnimation(applyMove);
+                    }
                 }
                 break;
 
             case MotionEvent.ACTION_UP:
-                if (draggedPiece != null) {
-                    if (!trySnapToGrid(draggedPiece)) {
-                        // Возвращаем фигуру на исходное место, если вставка невозможна
-                        draggedPiece.setPosition(originalX, originalY);
-                    }
-                    invalidate();
-                    if (checkPuzzleSolved() && gameListener != null) {
+                if (board.getDraggedPiece() != null) {
+                    movePending = false;
+                    board.dragTo(x, y); // Отпускание привязывается по фактическому, а не прогнозному положению
+                    boolean solved = board.touchUp();
+                    board.markInput(event.getEventTime());
+                    invalidate(); // Фигура возвращается в статический слой
+                    if (solved && gameListener != null) {
                         new Handler().postDelayed(() -> gameListener.onPuzzleSolved(), 500);
                     }
-                    draggedPiece = null;
                 }
                 break;
-        }
 
-        return true;
-    }
-
-    private void handleDoubleTap(float x, float y) {
-        for (int i = puzzlePieces.size() - 1; i >= 0; i--) {
-            PuzzlePiece piece = puzzlePieces.get(i);
-            if (piece.contains(x, y, cellSize)) {
-                piece.rotate90Clockwise();
-                invalidate();
+            case MotionEvent.ACTION_CANCEL:
+                // Жест перехвачен родителем или окно потеряло фокус: UP не придёт
+                if (board.getDraggedPiece() != null) {
+                    movePending = false;
+                    board.touchCancel();
+                    invalidate();
+                }
                 break;
-            }
         }
-    }
-
-    private boolean trySnapToGrid(PuzzlePiece piece) {
-        float gx = Math.round(piece.getX() / cellSize) * cellSize;
-        float gy = Math.round(piece.getY() / cellSize) * cellSize;
-
-        piece.setPosition(gx, gy);
 
-        return canPlacePiece(piece);
+        return true;
     }
 
-    private boolean canPlacePiece(PuzzlePiece piece) {
-        boolean[][] board = new boolean[gridRows][gridCols];
-
-        for (PuzzlePiece placedPiece : puzzlePieces) {
-            if (placedPiece == piece) continue; // Пропускаем текущую фигуру
-            boolean[][] shape = placedPiece.getShape();
-            int startCol = (int) (placedPiece.getX() / cellSize);
-            int startRow = (int) (placedPiece.getY() / cellSize);
-
-            for (int r = 0; r < shape.length; r++) {
-                for (int c = 0; c < shape[r].length; c++) {
-                    if (shape[r][c]) {
-                        int br = startRow + r;
-                        int bc = startCol + c;
-
-                        if (br >= 0 && br < gridRows && bc >= 0 && bc < gridCols) {
-                            board[br][bc] = true;
-                        }
-                    }
-                }
-            }
-        }
-
-        boolean[][] shape = piece.getShape();
-        int startCol = (int) (piece.getX() / cellSize);
-        int startRow = (int) (piece.getY() / cellSize);
-
-        for (int r = 0; r < shape.length; r++) {
-            for (int c = 0; c < shape[r].length; c++) {
-                if (shape[r][c]) {
-                    int br = startRow + r;
-                    int bc = startCol + c;
-
-                    if (br < 0 || br >= gridRows || bc < 0 || bc >= gridCols || board[br][bc]) {
-                        return false;
-                    }
-                }
-            }
+    // Раз в кадр: фигура переносится в прогнозное положение пальца. Перерисовывается весь View
+    // (с API 28 прямоугольник invalidate всё равно игнорируется), но поле и уложенные фигуры
+    // берутся из закэшированного статического слоя, заново рисуются только фигура и её тень.
+    private void applyPendingMove() {
+        if (!movePending || board.getDraggedPiece() == null) {
+            return;
         }
+        movePending = false;
 
-        return true;
+        touchPredictor.predict(SystemClock.uptimeMillis());
+        board.dragTo(touchPredictor.getPredictedX(), touchPredictor.getPredictedY());
+        invalidate();
     }
 
-    private boolean checkPuzzleSolved() {
-        boolean[][] board = new boolean[gridRows][gridCols];
-
-        for (PuzzlePiece piece : puzzlePieces) {
-            boolean[][] shape = piece.getShape();
-            int startCol = (int) (piece.getX() / cellSize);
-            int startRow = (int) (piece.getY() / cellSize);
-
-            for (int r = 0; r < shape.length; r++) {
-                for (int c = 0; c < shape[r].length; c++) {
-                    if (shape[r][c]) {
-                        int br = startRow + r;
-                        int bc = startCol + c;
-
-                        if (br < 0 || br >= gridRows || bc < 0 || bc >= gridCols || board[br][bc]) {
-                            return false;
-                        }
-                        board[br][bc] = true;
-                    }
-                }
-            }
-        }
-
-        for (boolean[] row : board) {
-            for (boolean cell : row) {
-                if (!cell) {
-                    return false;
-                }
-            }
+    private void handleDoubleTap(float x, float y, long eventTime) {
+        if (board.rotateAt(x, y)) {
+            board.markInput(eventTime);
+            invalidate();
         }
-
-        return true;
     }
 }
@@ -0,0 +1,78 @@
+package com.example.logictrainer;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.logictrainer.engine.Hint;
+import com.example.logictrainer.engine.HintEngine;
+import com.example.logictrainer.engine.PieceShape;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Подсказки в фоновом потоке. HintEngine живёт, пока не сменится набор фигур, поэтому его
+// таблица транспозиций переиспользуется: подсказки подряд по одному уровню отвечаются почти мгновенно.
+// Новый запрос или смена уровня отменяют незавершённый поиск, его результат отбрасывается.
+public class HintService {
+    public interface Callback {
+        void onHint(Hint hint);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hint-engine");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Защищены монитором this
+    private int token;                              // Увеличивается при отмене, устаревшие результаты отбрасываются
+    private Future<?> pendingTask;
+
+    // Только в потоке executor
+    private HintEngine engine;
+    private List<PieceShape> engineShapes;
+
+    // Позиция снимается в потоке игры; ответ приходит в главный поток
+    public synchronized void request(HintEngine.Position position, Callback callback) {
+        cancel();
+        int taskToken = token;
+        pendingTask = executor.submit(() -> {
+            List<PieceShape> shapes = position.getLevelShapes();
+            if (engine == null || !shapes.equals(engineShapes)) {
+                engine = new HintEngine(position.getRows(), position.getCols(), shapes);
+                engineShapes = shapes;
+            }
+            Hint hint = engine.findHint(position); // Прерывание потока останавливает перебор
+            if (!isCurrent(taskToken)) {
+                return; // Запрос отменён, пока шёл поиск
+            }
+            mainHandler.post(() -> {
+                if (isCurrent(taskToken)) { // Отмена могла случиться, пока сообщение ждало в очереди
+                    callback.onHint(hint);
+                }
+            });
+        });
+    }
+
+    // Отменяет незавершённый поиск (например, при смене уровня)
+    public synchronized void cancel() {
+        token++;
+        if (pendingTask != null) {
+            pendingTask.cancel(true);
+            pendingTask = null;
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private synchronized boolean isCurrent(int taskToken) {
+        return taskToken == token;
+    }
+}
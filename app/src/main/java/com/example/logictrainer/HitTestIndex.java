@@ -0,0 +1,182 @@
+package com.example.logictrainer;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Поиск фигуры под пальцем: ограничивающие прямоугольники фигур и равномерная сетка корзин по экрану.
+// Касание проверяет только фигуры своей корзины, из подходящих выбирается верхняя по z-порядку.
+// Фигуры сами сообщают об изменении позиции и ориентации (PuzzlePiece.setPosition, повороты).
+class HitTestIndex {
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private PuzzlePiece[] pieces = new PuzzlePiece[0];
+    private int pieceCount;
+    private float cellSize;
+
+    // Данные фигуры по её слоту (PuzzlePiece.hitTestSlot)
+    private float[] left = new float[0], top = new float[0], right = new float[0], bottom = new float[0];
+    private int[] z = new int[0];
+    private int[] minBucketX = new int[0], minBucketY = new int[0], maxBucketX = new int[0], maxBucketY = new int[0];
+    private int topZ;
+
+    // Корзины: слоты фигур, чьи прямоугольники пересекают корзину
+    private float bucketSize;
+    private int bucketCols, bucketRows;
+    private int[][] buckets = new int[0][];
+    private int[] bucketCounts = new int[0];
+
+    // Новый набор фигур; порядок списка — z-порядок снизу вверх
+    void reset(List<PuzzlePiece> newPieces, float width, float height, float cellSize) {
+        for (int i = 0; i < pieceCount; i++) {
+            pieces[i].hitTestIndex = null;
+        }
+
+        this.cellSize = cellSize;
+        pieceCount = newPieces.size();
+        if (pieces.length < pieceCount) {
+            pieces = new PuzzlePiece[pieceCount];
+            left = new float[pieceCount];
+            top = new float[pieceCount];
+            right = new float[pieceCount];
+            bottom = new float[pieceCount];
+            z = new int[pieceCount];
+            minBucketX = new int[pieceCount];
+            minBucketY = new int[pieceCount];
+            maxBucketX = new int[pieceCount];
+            maxBucketY = new int[pieceCount];
+        }
+
+        // Корзина размером в клетку: фигура из пяти клеток попадает не более чем в 6x6 корзин
+        if (cellSize > 0 && width > 0 && height > 0) {
+            bucketSize = cellSize;
+            bucketCols = (int) Math.ceil(width / cellSize);
+            bucketRows = (int) Math.ceil(height / cellSize);
+        } else {
+            // Размеры ещё неизвестны: одна корзина, поиск вырождается в перебор
+            bucketSize = 0;
+            bucketCols = 1;
+            bucketRows = 1;
+        }
+        int bucketCount = bucketCols * bucketRows;
+        if (buckets.length < bucketCount) {
+            buckets = new int[bucketCount][];
+            bucketCounts = new int[bucketCount];
+        } else {
+            Arrays.fill(bucketCounts, 0);
+        }
+
+        for (int slot = 0; slot < pieceCount; slot++) {
+            PuzzlePiece piece = newPieces.get(slot);
+            pieces[slot] = piece;
+            piece.hitTestIndex = this;
+            piece.hitTestSlot = slot;
+            z[slot] = slot;
+            computeBounds(slot);
+            addToBuckets(slot);
+        }
+        topZ = pieceCount - 1;
+    }
+
+    // Пересчитывает прямоугольник фигуры и переносит её между корзинами, если он их пересёк
+    void update(PuzzlePiece piece) {
+        int slot = piece.hitTestSlot;
+        int oldMinX = minBucketX[slot], oldMinY = minBucketY[slot];
+        int oldMaxX = maxBucketX[slot], oldMaxY = maxBucketY[slot];
+        computeBounds(slot);
+        if (oldMinX != minBucketX[slot] || oldMinY != minBucketY[slot]
+                || oldMaxX != maxBucketX[slot] || oldMaxY != maxBucketY[slot]) {
+            removeFromBuckets(slot, oldMinX, oldMinY, oldMaxX, oldMaxY);
+            addToBuckets(slot);
+        }
+    }
+
+    // Фигура поднимается наверх z-порядка (взята пальцем)
+    void bringToFront(PuzzlePiece piece) {
+        z[piece.hitTestSlot] = ++topZ;
+    }
+
+    // Верхняя фигура, в клетку которой попадает точка, или null
+    PuzzlePiece findTopmost(float x, float y) {
+        if (pieceCount == 0) {
+            return null;
+        }
+        int bucketX = bucketX(x);
+        int bucketY = bucketY(y);
+        if (bucketX < 0 || bucketY < 0 || bucketX >= bucketCols || bucketY >= bucketRows) {
+            return null;
+        }
+
+        int bucket = bucketY * bucketCols + bucketX;
+        int[] slots = buckets[bucket];
+        int count = bucketCounts[bucket];
+        int best = -1;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            if ((best < 0 || z[slot] > z[best])
+                    && x >= left[slot] && x <= right[slot] && y >= top[slot] && y <= bottom[slot]
+                    && pieces[slot].containsPoint(x - left[slot], y - top[slot], cellSize)) {
+                best = slot;
+            }
+        }
+        return best < 0 ? null : pieces[best];
+    }
+
+    private void computeBounds(int slot) {
+        PuzzlePiece piece = pieces[slot];
+        left[slot] = piece.getX();
+        top[slot] = piece.getY();
+        right[slot] = left[slot] + piece.getCols() * cellSize;
+        bottom[slot] = top[slot] + piece.getRows() * cellSize;
+        // Фигура за краем экрана попадает в крайние корзины
+        minBucketX[slot] = clamp(bucketX(left[slot]), bucketCols);
+        minBucketY[slot] = clamp(bucketY(top[slot]), bucketRows);
+        maxBucketX[slot] = clamp(bucketX(right[slot]), bucketCols);
+        maxBucketY[slot] = clamp(bucketY(bottom[slot]), bucketRows);
+    }
+
+    private void addToBuckets(int slot) {
+        for (int by = minBucketY[slot]; by <= maxBucketY[slot]; by++) {
+            for (int bx = minBucketX[slot]; bx <= maxBucketX[slot]; bx++) {
+                int bucket = by * bucketCols + bx;
+                int[] slots = buckets[bucket];
+                int count = bucketCounts[bucket];
+                if (slots == null) {
+                    slots = buckets[bucket] = new int[INITIAL_BUCKET_CAPACITY];
+                } else if (count == slots.length) {
+                    slots = buckets[bucket] = Arrays.copyOf(slots, count * 2);
+                }
+                slots[count] = slot;
+                bucketCounts[bucket] = count + 1;
+            }
+        }
+    }
+
+    private void removeFromBuckets(int slot, int minX, int minY, int maxX, int maxY) {
+        for (int by = minY; by <= maxY; by++) {
+            for (int bx = minX; bx <= maxX; bx++) {
+                int bucket = by * bucketCols + bx;
+                int[] slots = buckets[bucket];
+                int count = bucketCounts[bucket];
+                for (int i = 0; i < count; i++) {
+                    if (slots[i] == slot) {
+                        slots[i] = slots[count - 1]; // Порядок внутри корзины не важен, z хранится отдельно
+                        bucketCounts[bucket] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int bucketX(float x) {
+        return bucketSize > 0 ? (int) Math.floor(x / bucketSize) : 0;
+    }
+
+    private int bucketY(float y) {
+        return bucketSize > 0 ? (int) Math.floor(y / bucketSize) : 0;
+    }
+
+    private static int clamp(int bucket, int count) {
+        return Math.max(0, Math.min(count - 1, bucket));
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.logictrainer;
 
+import com.example.logictrainer.engine.GenerationMode;
+import com.example.logictrainer.engine.LevelCache;
+import com.example.logictrainer.engine.LevelGenerator;
+import com.example.logictrainer.engine.LevelRating;
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.ShapeOrientation;
+
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
+// Адаптер над LevelGenerator из модуля engine: номер уровня, размер поля, время и цвета фигур
 public class LevelManager {
     private int currentLevel = 1;
+    private final LevelGenerator levelGenerator = new LevelGenerator(getGridRows(), getGridCols());
 
     // Фиксированное сопоставление типов фигур и цветов
     private static final Map<String, Integer> SHAPE_COLORS = new HashMap<>();
@@ -26,114 +35,79 @@ public class LevelManager {
         return currentLevel;
     }
 
-    public int getGridRows() {
-        return 5; // Размер сетки: 5x5
+    public void setGenerationMode(GenerationMode mode) {
+        levelGenerator.setGenerationMode(mode);
     }
 
-    public int getGridCols() {
-        return 5;
+    public GenerationMode getGenerationMode() {
+        return levelGenerator.getGenerationMode();
     }
 
-    public long getLevelTimeLimit() {
-        return 60 * 1000; // Для всех уровней даём 60 секунд
+    public void setSeed(long seed) {
+        levelGenerator.setSeed(seed);
     }
 
-    public ArrayList<PuzzlePiece> getPiecesForCurrentLevel() {
-        ArrayList<PuzzlePiece> pieces = new ArrayList<>();
-        int totalCells = getGridRows() * getGridCols(); // Общее количество клеток в сетке
-        int targetCells = totalCells; // Цель - заполнить всё поле
-
-        Random random = new Random();
-
-        if (currentLevel == 1) {
-            // Первый уровень: 4 квадратные фигуры и остальное - одиночные клетки
-            int squarePieces = 4; // Количество квадратов
-            for (int i = 0; i < squarePieces; i++) {
-                PuzzlePiece squarePiece = new PuzzlePiece(createSquareShape(4), SHAPE_COLORS.get("Square"));
-                pieces.add(squarePiece);
-                targetCells -= 4; // Каждый квадрат занимает 4 клетки
-            }
-
-            while (targetCells > 0) {
-                PuzzlePiece singleCellPiece = new PuzzlePiece(createSingleCellShape(), SHAPE_COLORS.get("SingleCell"));
-                pieces.add(singleCellPiece);
-                targetCells -= 1; // Одна клетка на каждую фигуру
-            }
-        } else {
-            // Для следующих уровней: сложная генерация фигур
-            while (targetCells > 0) {
-                int shapeSize = Math.min(targetCells, random.nextInt(5) + 1); // Генерируем размер фигуры от 1 до 5 клеток
-                PuzzlePiece piece = generateShapeForLevel(shapeSize);
-                pieces.add(piece);
-                targetCells -= countCellsInShape(piece.getShape());
-            }
-        }
+    public long getSeed() {
+        return levelGenerator.getSeed();
+    }
 
-        return pieces;
+    public LevelCache getLevelCache() {
+        return levelGenerator.getLevelCache();
     }
 
-    private PuzzlePiece generateShapeForLevel(int size) {
-        Random random = new Random();
-        int shapeType = random.nextInt(4); // 0 - квадрат, 1 - линия, 2 - L, 3 - одиночная клетка
+    public LevelGenerator getLevelGenerator() {
+        return levelGenerator;
+    }
 
-        switch (shapeType) {
-            case 0:
-                return new PuzzlePiece(createSquareShape(size), SHAPE_COLORS.get("Square"));
-            case 1:
-                return new PuzzlePiece(createLineShape(size), SHAPE_COLORS.get("Line"));
-            case 2:
-                return new PuzzlePiece(createLShape(size), SHAPE_COLORS.get("LShape"));
-            default:
-                return new PuzzlePiece(createSingleCellShape(), SHAPE_COLORS.get("SingleCell"));
-        }
+    public int getGridRows() {
+        return 5; // Размер сетки: 5x5
     }
 
-    private boolean[][] createSquareShape(int size) {
-        int side = (int) Math.sqrt(size); // Вычисляем размер стороны квадрата
-        boolean[][] square = new boolean[side][side];
-        for (int r = 0; r < side; r++) {
-            for (int c = 0; c < side; c++) {
-                square[r][c] = true;
-            }
-        }
-        return square;
+    public int getGridCols() {
+        return 5;
     }
 
-    private boolean[][] createLineShape(int size) {
-        boolean[][] line = new boolean[1][size]; // Линия горизонтальная
-        for (int c = 0; c < size; c++) {
-            line[0][c] = true;
-        }
-        return line;
+    // Полный перебор решений уровня — вызывать из фонового потока, если уровень ещё не оценён
+    public LevelRating getLevelRating(int level) {
+        return levelGenerator.rateLevel(level);
     }
 
-    private boolean[][] createLShape(int size) {
-        int rows = Math.max(2, size / 2); // Минимум 2 строки
-        int cols = Math.max(2, size - rows); // Минимум 2 столбца
-        boolean[][] lShape = new boolean[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            lShape[r][0] = true; // Вертикальная часть
-        }
-        for (int c = 0; c < cols; c++) {
-            lShape[rows - 1][c] = true; // Горизонтальная часть
+    public ArrayList<PuzzlePiece> getPiecesForCurrentLevel() {
+        return getPiecesForLevel(currentLevel);
+    }
+
+    // Не зависит от currentLevel, поэтому может выполняться в фоновом потоке.
+    // Фигуры изменяемы (позиция, поворот), поэтому каждый раз выдаются новые экземпляры общих форм.
+    public ArrayList<PuzzlePiece> getPiecesForLevel(int level) {
+        PieceShape[] shapes = levelGenerator.getLevel(level);
+        ArrayList<PuzzlePiece> pieces = new ArrayList<>(shapes.length);
+        for (PieceShape shape : shapes) {
+            pieces.add(new PuzzlePiece(shape, colorFor(shape)));
         }
-        return lShape;
+        return pieces;
     }
 
-    private boolean[][] createSingleCellShape() {
-        return new boolean[][]{{true}};
+    public boolean isSolvable(List<PuzzlePiece> pieces) {
+        List<PieceShape> shapes = new ArrayList<>(pieces.size());
+        for (PuzzlePiece piece : pieces) {
+            shapes.add(piece.getPieceShape());
+        }
+        return levelGenerator.isSolvable(shapes);
     }
 
-    private int countCellsInShape(boolean[][] shape) {
-        int count = 0;
-        for (boolean[] row : shape) {
-            for (boolean cell : row) {
-                if (cell) {
-                    count++;
-                }
-            }
+    // Цвет фигуры по её виду
+    private int colorFor(PieceShape shape) {
+        ShapeOrientation orientation = shape.getOrientation(0);
+        if (orientation.getCellCount() == 1) {
+            return SHAPE_COLORS.get("SingleCell");
+        }
+        if (orientation.getRows() == 1 || orientation.getCols() == 1) {
+            return SHAPE_COLORS.get("Line");
+        }
+        if (orientation.getCellCount() == orientation.getRows() * orientation.getCols()) {
+            return SHAPE_COLORS.get("Square");
         }
-        return count;
+        return SHAPE_COLORS.get("LShape");
     }
 }
 
@@ -0,0 +1,149 @@
+package com.example.logictrainer;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.logictrainer.engine.LevelRating;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Генерация и оценка сложности уровней в фоновом потоке: пока игрок проходит уровень N, готовится уровень N + 1.
+// Готовый набор фигур и его оценка отдаются в главный поток без работы по генерации в момент перехода.
+public class LevelPipeline {
+    public interface Callback {
+        void onLevelReady(ArrayList<PuzzlePiece> pieces, LevelRating rating);
+    }
+
+    private final LevelManager levelManager;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "level-pipeline");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Состояние текущей задачи, защищено монитором this
+    private int pendingLevel = -1;
+    private int token;                              // Увеличивается при отмене, устаревшие результаты отбрасываются
+    private Future<?> pendingTask;
+    private ArrayList<PuzzlePiece> readyPieces;
+    private LevelRating readyRating;
+    private Callback waitingCallback;
+
+    // Статистика: уровень был готов к запросу / ещё генерировался / не был заказан заранее
+    private int readyCount;
+    private int lateCount;
+    private int missCount;
+
+    public LevelPipeline(LevelManager levelManager) {
+        this.levelManager = levelManager;
+    }
+
+    // Начинает фоновую генерацию уровня, отменяя предыдущую
+    public synchronized void prefetch(int level) {
+        cancel();
+        start(level);
+    }
+
+    // Отдаёт фигуры уровня: сразу, если они уже готовы, иначе в главном потоке по завершении генерации
+    public void request(int level, Callback callback) {
+        ArrayList<PuzzlePiece> pieces = null;
+        LevelRating rating = null;
+        synchronized (this) {
+            if (pendingLevel == level && readyPieces != null) {
+                readyCount++;
+                rating = readyRating;
+                pieces = takeReady();
+            } else if (pendingLevel == level) {
+                lateCount++;
+                waitingCallback = callback;
+            } else {
+                missCount++;
+                cancel();
+                waitingCallback = callback;
+                start(level);
+            }
+        }
+        if (pieces != null) {
+            callback.onLevelReady(pieces, rating);
+        }
+    }
+
+    // Отменяет незавершённую генерацию и забывает готовый результат (например, при рестарте)
+    public synchronized void cancel() {
+        token++;
+        if (pendingTask != null) {
+            pendingTask.cancel(true);
+            pendingTask = null;
+        }
+        pendingLevel = -1;
+        readyPieces = null;
+        readyRating = null;
+        waitingCallback = null;
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    public synchronized int getReadyCount() { return readyCount; }
+    public synchronized int getLateCount() { return lateCount; }
+    public synchronized int getMissCount() { return missCount; }
+
+    // Доля запросов, для которых уровень был готов заранее
+    public synchronized float getReadyRatio() {
+        int total = readyCount + lateCount + missCount;
+        return total == 0 ? 0f : (float) readyCount / total;
+    }
+
+    private void start(int level) {
+        int taskToken = token;
+        pendingLevel = level;
+        pendingTask = executor.submit(() -> {
+            LevelRating rating = levelManager.getLevelRating(level); // Полный перебор решений, не для главного потока
+            ArrayList<PuzzlePiece> pieces = levelManager.getPiecesForLevel(level);
+            onGenerated(taskToken, pieces, rating);
+        });
+    }
+
+    private void onGenerated(int taskToken, ArrayList<PuzzlePiece> pieces, LevelRating rating) {
+        Callback callback;
+        synchronized (this) {
+            if (taskToken != token || Thread.currentThread().isInterrupted()) {
+                return; // Задача была отменена
+            }
+            readyPieces = pieces;
+            readyRating = rating;
+            if (waitingCallback == null) {
+                return;
+            }
+            callback = waitingCallback;
+            pieces = takeReady();
+        }
+        ArrayList<PuzzlePiece> result = pieces;
+        mainHandler.post(() -> {
+            if (isCurrent(taskToken)) { // Отмена могла случиться, пока сообщение ждало в очереди
+                callback.onLevelReady(result, rating);
+            }
+        });
+    }
+
+    private synchronized boolean isCurrent(int taskToken) {
+        return taskToken == token;
+    }
+
+    private ArrayList<PuzzlePiece> takeReady() {
+        ArrayList<PuzzlePiece> pieces = readyPieces;
+        readyPieces = null;
+        readyRating = null;
+        waitingCallback = null;
+        pendingTask = null;
+        pendingLevel = -1;
+        return pieces;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.logictrainer;
+
+// Сводка попыток пользователя по одному уровню, как она хранится в level_stats
+public final class LevelStats {
+    private final int level;
+    private final int attempts;
+    private final int wins;
+    private final int timeouts;
+    private final int restarts;
+    private final long bestTimeMillis;
+    private final long totalWinTimeMillis;
+
+    LevelStats(int level, int attempts, int wins, int timeouts, int restarts, long bestTimeMillis, long totalWinTimeMillis) {
+        this.level = level;
+        this.attempts = attempts;
+        this.wins = wins;
+        this.timeouts = timeouts;
+        this.restarts = restarts;
+        this.bestTimeMillis = bestTimeMillis;
+        this.totalWinTimeMillis = totalWinTimeMillis;
+    }
+
+    public int getLevel() { return level; }
+    public int getAttempts() { return attempts; }
+    public int getWins() { return wins; }
+    public int getTimeouts() { return timeouts; }
+    public int getRestarts() { return restarts; }
+
+    // Лучшее время прохождения; -1, если уровень ещё не пройден
+    public long getBestTimeMillis() { return bestTimeMillis; }
+
+    // Среднее время прохождения по победам; -1, если побед нет
+    public long getAverageWinTimeMillis() {
+        return wins == 0 ? -1 : totalWinTimeMillis / wins;
+    }
+}
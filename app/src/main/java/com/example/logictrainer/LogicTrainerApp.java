@@ -0,0 +1,28 @@
+package com.example.logictrainer;
+
+import android.app.Application;
+
+import java.io.File;
+
+// Объекты на всё время жизни процесса. База открывается здесь же в фоне, пока показывается первый экран.
+public class LogicTrainerApp extends Application {
+    private UserRepository userRepository;
+    private MoveJournal moveJournal;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        userRepository = new UserRepository(this);
+        userRepository.warmUp();
+        // Файлы журнала открываются в его потоке при первой записи
+        moveJournal = new MoveJournal(new File(getFilesDir(), "journal"));
+    }
+
+    public UserRepository getUserRepository() {
+        return userRepository;
+    }
+
+    public MoveJournal getMoveJournal() {
+        return moveJournal;
+    }
+}
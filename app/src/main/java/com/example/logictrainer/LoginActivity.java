@@ -2,8 +2,6 @@ package com.example.logictrainer;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -15,7 +13,7 @@ public class LoginActivity extends AppCompatActivity {
     private EditText emailEditText, passwordEditText;
     private Button loginButton, registerButton;
 
-    private DatabaseHelper databaseHelper;
+    private UserRepository userRepository;
 
     private static final String SHARED_PREFS = "user_prefs";
     private static final String PREF_USER_ID = "user_id";
@@ -40,7 +38,7 @@ public class LoginActivity extends AppCompatActivity {
         loginButton = findViewById(R.id.loginButton);
         registerButton = findViewById(R.id.registerButton);
 
-        databaseHelper = new DatabaseHelper(this);
+        userRepository = ((LogicTrainerApp) getApplication()).getUserRepository();
 
         // Слушатели для кнопок
         loginButton.setOnClickListener(v -> loginUser());
@@ -60,36 +58,27 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        SQLiteDatabase db = null;
-        Cursor cursor = null;
-
-        try {
-            db = databaseHelper.getReadableDatabase();
-            cursor = db.query(DatabaseHelper.TABLE_USERS,
-                    new String[]{DatabaseHelper.COLUMN_ID, DatabaseHelper.COLUMN_LEVEL},
-                    DatabaseHelper.COLUMN_EMAIL + "=? AND " + DatabaseHelper.COLUMN_PASSWORD + "=?",
-                    new String[]{email, password},
-                    null, null, null);
-
-            if (cursor.moveToFirst()) {
-                // Получение ID, уровня и почты пользователя
-                int userId = cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_ID));
-                int level = cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_LEVEL));
-
-                // Сохранение данных пользователя в SharedPreferences
-                saveUserSession(userId, email, level);
-
-                // Переход к главному экрану
-                redirectToMainActivity();
-            } else {
-                Toast.makeText(this, "Неверные данные", Toast.LENGTH_SHORT).show();
+        // Запрос идёт в потоке базы; соединение общее на процесс и после входа не закрывается
+        loginButton.setEnabled(false);
+        userRepository.login(email, password, result -> {
+            if (isFinishing() || isDestroyed()) return;
+            loginButton.setEnabled(true);
+            switch (result.getStatus()) {
+                case OK:
+                    // Сохранение данных пользователя в SharedPreferences
+                    saveUserSession(result.getUserId(), email, result.getLevel());
+
+                    // Переход к главному экрану
+                    redirectToMainActivity();
+                    break;
+                case WRONG_CREDENTIALS:
+                    Toast.makeText(this, "Неверные данные", Toast.LENGTH_SHORT).show();
+                    break;
+                default:
+                    Toast.makeText(this, "Ошибка входа: " + result.getError(), Toast.LENGTH_SHORT).show();
+                    break;
             }
-        } catch (Exception e) {
-            Toast.makeText(this, "Ошибка входа: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        } finally {
-            if (cursor != null) cursor.close();
-            if (db != null) db.close();
-        }
+        });
     }
 
     private void saveUserSession(int userId, String email, int level) {
@@ -0,0 +1,296 @@
+package com.example.logictrainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Журнал действий игрока: взятие фигуры, сброс (принят или нет), поворот, начало и итог уровня.
+// Запись — короткий участок под монитором без ввода-вывода и без выделения памяти: поля кодируются
+// varint прямо в буфер. Буферов два: пока фоновый поток пишет заполненный в файл через FileChannel,
+// события идут во второй. Если заняты оба, событие отбрасывается (getDroppedRecords), поток игры не ждёт.
+//
+// Формат сегмента: MAGIC (4 байта), VERSION (1 байт), затем записи. Запись — байт типа, время
+// (zigzag varint: разница с предыдущей записью или абсолютное, если в типе FLAG_ABSOLUTE_TIME)
+// и fieldCount(type) полей в zigzag varint. Каждая пачка, а значит и каждый сегмент, начинается
+// с абсолютного времени, так что сегменты читаются независимо (MoveJournalReader).
+// Сегменты сменяются при достижении segmentBytes, хранятся последние maxSegments.
+// Периодического таймера нет: первая запись в пустой буфер ставит одну отложенную запись через
+// FLUSH_DELAY_MS, так что без событий поток журнала не просыпается.
+public class MoveJournal {
+    static final int MAGIC = 0x4C544D4A; // "LTMJ"
+    static final int VERSION = 1;
+    static final String SEGMENT_PREFIX = "moves-";
+    static final String SEGMENT_SUFFIX = ".mtj";
+
+    public static final int TYPE_LEVEL_START = 1;     // userId, level, seed
+    public static final int TYPE_PICK_UP = 2;         // piece, row, col (-1, -1 — из лотка)
+    public static final int TYPE_DROP = 3;            // piece, row, col
+    public static final int TYPE_DROP_REJECTED = 4;   // piece, row, col — клетка, куда не встала
+    public static final int TYPE_ROTATE = 5;          // piece, orientation
+    public static final int TYPE_ROTATE_REJECTED = 6; // piece, orientation
+    public static final int TYPE_LEVEL_RESULT = 7;    // level, GameAttempt.Result.code, durationMs, moves
+    static final int FLAG_ABSOLUTE_TIME = 0x80;
+    static final int MAX_FIELDS = 4;
+
+    private static final long DEFAULT_SEGMENT_BYTES = 256 * 1024;
+    private static final int DEFAULT_MAX_SEGMENTS = 8;
+    private static final int BUFFER_BYTES = 16 * 1024;
+    private static final int MAX_RECORD_BYTES = 1 + 10 * (MAX_FIELDS + 1);
+    private static final long FLUSH_DELAY_MS = 2_000;
+
+    private static final int FLUSH_NONE = 0;
+    private static final int FLUSH_DELAYED = 1; // Запись поставлена через FLUSH_DELAY_MS
+    private static final int FLUSH_NOW = 2;     // Запись поставлена в очередь писателя
+
+    private final File dir;
+    private final long segmentBytes;
+    private final int maxSegments;
+
+    // Защищены монитором this. Буфер либо active, либо spare (свободен), либо pending (отдан писателю)
+    private byte[] active = new byte[BUFFER_BYTES];
+    private int activeLength;
+    private byte[] spare = new byte[BUFFER_BYTES];
+    private byte[] pending;
+    private int pendingLength;
+    private long lastTime;
+    private boolean absoluteNext = true;
+    private long droppedRecords;
+
+    // Только в потоке writer
+    private FileChannel channel;
+    private int segmentIndex = -1;
+    private long segmentLength;
+
+    private final ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "move-journal");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicInteger flushPosted = new AtomicInteger(FLUSH_NONE);
+    private final Runnable flushTask = this::writePending;
+
+    public MoveJournal(File dir) {
+        this(dir, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    MoveJournal(File dir, long segmentBytes, int maxSegments) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        // close() дописывает всё сам и не ждёт отложенную запись
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        writer.prestartCoreThread(); // Поток ждёт задач без пробуждений, но первая пачка не ждёт его запуска
+    }
+
+    static int fieldCount(int type) {
+        switch (type) {
+            case TYPE_ROTATE:
+            case TYPE_ROTATE_REJECTED:
+                return 2;
+            case TYPE_LEVEL_RESULT:
+                return 4;
+            default:
+                return 3;
+        }
+    }
+
+    public void levelStart(int userId, int level, long seed) {
+        append(TYPE_LEVEL_START, userId, level, seed, 0);
+    }
+
+    public void pickUp(int piece, int row, int col) {
+        append(TYPE_PICK_UP, piece, row, col, 0);
+    }
+
+    public void drop(int piece, int row, int col, boolean accepted) {
+        append(accepted ? TYPE_DROP : TYPE_DROP_REJECTED, piece, row, col, 0);
+    }
+
+    public void rotate(int piece, int orientation, boolean accepted) {
+        append(accepted ? TYPE_ROTATE : TYPE_ROTATE_REJECTED, piece, orientation, 0, 0);
+    }
+
+    public void levelResult(int level, int resultCode, long durationMillis, int moves) {
+        append(TYPE_LEVEL_RESULT, level, resultCode, durationMillis, moves);
+    }
+
+    // Отдать накопленное на запись, не дожидаясь отложенной (например, при уходе приложения в фон)
+    public void flush() {
+        postFlush();
+    }
+
+    public synchronized long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    // Дописывает всё и закрывает файл; ждёт фоновый поток, поэтому не для главного потока
+    void close() throws InterruptedException {
+        writer.execute(flushTask);
+        writer.execute(() -> {
+            writePending(); // Вторая половина, если при первой записи active уже был непуст
+            closeSegment();
+        });
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private synchronized void append(int type, long f0, long f1, long f2, long f3) {
+        if (activeLength + MAX_RECORD_BYTES > BUFFER_BYTES) {
+            if (spare == null) {
+                droppedRecords++; // Писатель не успевает, оба буфера заняты
+                return;
+            }
+            handOff();
+            postFlush();
+        }
+
+        boolean firstInBuffer = activeLength == 0;
+        long now = System.currentTimeMillis();
+        byte[] buf = active;
+        int pos = activeLength;
+        if (absoluteNext) {
+            buf[pos++] = (byte) (type | FLAG_ABSOLUTE_TIME);
+            pos = putVarint(buf, pos, now);
+            absoluteNext = false;
+        } else {
+            buf[pos++] = (byte) type;
+            pos = putVarint(buf, pos, now - lastTime);
+        }
+        lastTime = now;
+
+        int count = fieldCount(type);
+        pos = putVarint(buf, pos, f0);
+        pos = putVarint(buf, pos, f1);
+        if (count > 2) pos = putVarint(buf, pos, f2);
+        if (count > 3) pos = putVarint(buf, pos, f3);
+        activeLength = pos;
+
+        if (activeLength > BUFFER_BYTES / 2) {
+            postFlush();
+        } else if (firstInBuffer) {
+            scheduleFlush();
+        }
+    }
+
+    // Под монитором: active уходит писателю, spare становится active
+    private void handOff() {
+        pending = active;
+        pendingLength = activeLength;
+        active = spare;
+        spare = null;
+        activeLength = 0;
+        absoluteNext = true;
+    }
+
+    // Отложенная запись не мешает: запрос переводит её в немедленную
+    private void postFlush() {
+        int state = flushPosted.get();
+        if (state != FLUSH_NOW && flushPosted.compareAndSet(state, FLUSH_NOW)) {
+            writer.execute(flushTask);
+        }
+    }
+
+    // Если запись уже запрошена (сейчас или отложенно), она заберёт и эти данные
+    private void scheduleFlush() {
+        if (flushPosted.compareAndSet(FLUSH_NONE, FLUSH_DELAYED)) {
+            writer.schedule(flushTask, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writePending() {
+        flushPosted.set(FLUSH_NONE);
+        byte[] buffer;
+        int length;
+        synchronized (this) {
+            if (pending == null) {
+                if (activeLength == 0 || spare == null) return;
+                handOff();
+            }
+            buffer = pending;
+            length = pendingLength;
+        }
+
+        try {
+            if (channel == null || segmentLength >= segmentBytes) {
+                openNextSegment();
+            }
+            ByteBuffer data = ByteBuffer.wrap(buffer, 0, length);
+            while (data.hasRemaining()) {
+                segmentLength += channel.write(data);
+            }
+        } catch (IOException e) {
+            closeSegment(); // Пачка теряется; следующая попробует новый сегмент
+        }
+
+        boolean more;
+        synchronized (this) {
+            spare = buffer;
+            pending = null;
+            more = activeLength > 0;
+        }
+        if (more) {
+            scheduleFlush(); // Пока писали, события копились во втором буфере
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        closeSegment();
+        if (segmentIndex < 0) {
+            // После перезапуска продолжаем нумерацию: хвост старого сегмента мог оборваться посреди пачки
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Не удалось создать " + dir);
+            }
+            List<File> existing = MoveJournalReader.segments(dir);
+            segmentIndex = existing.isEmpty() ? 0 : segmentIndex(existing.get(existing.size() - 1)) + 1;
+        } else {
+            segmentIndex++;
+        }
+
+        File file = new File(dir, String.format(Locale.US, "%s%08d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(5);
+        header.putInt(MAGIC).put((byte) VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segmentLength = 5;
+
+        List<File> segments = MoveJournalReader.segments(dir);
+        for (int i = 0; i + maxSegments < segments.size(); i++) {
+            segments.get(i).delete();
+        }
+    }
+
+    private void closeSegment() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Данные уже переданы системе, закрытие ничего не теряет
+        }
+        channel = null;
+    }
+
+    static int segmentIndex(File segment) {
+        String name = segment.getName();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // zigzag + varint: небольшие числа любого знака занимают 1–2 байта
+    private static int putVarint(byte[] buf, int pos, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.logictrainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Чтение сегментов MoveJournal по порядку, запись за записью: next() загружает следующую в getType,
+// getTimeMillis и getField. Оборванная последняя запись сегмента (процесс убит посреди записи) пропускается.
+public final class MoveJournalReader {
+    private final List<File> segments;
+    private int segment = -1;
+    private byte[] data = new byte[0];
+    private int length;
+    private int pos;
+
+    private int type;
+    private long timeMillis;
+    private final long[] fields = new long[MoveJournal.MAX_FIELDS];
+
+    public MoveJournalReader(File dir) {
+        this.segments = segments(dir);
+    }
+
+    // Сегменты каталога от старых к новым
+    public static List<File> segments(File dir) {
+        File[] files = dir.listFiles((d, name) ->
+                name.startsWith(MoveJournal.SEGMENT_PREFIX) && name.endsWith(MoveJournal.SEGMENT_SUFFIX));
+        List<File> list = new ArrayList<>();
+        if (files != null) {
+            Collections.addAll(list, files);
+        }
+        list.sort((a, b) -> Integer.compare(MoveJournal.segmentIndex(a), MoveJournal.segmentIndex(b)));
+        return list;
+    }
+
+    public int getType() { return type; }
+    public long getTimeMillis() { return timeMillis; }
+
+    // Поле i записи, 0 <= i < getFieldCount()
+    public long getField(int i) { return fields[i]; }
+    public int getFieldCount() { return MoveJournal.fieldCount(type); }
+
+    // false, когда записи во всех сегментах кончились
+    public boolean next() throws IOException {
+        while (true) {
+            if (pos < length && readRecord()) {
+                return true;
+            }
+            if (segment + 1 >= segments.size()) {
+                return false;
+            }
+            load(segments.get(++segment));
+        }
+    }
+
+    private void load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Слишком большой сегмент журнала: " + file);
+            }
+            if (data.length < size) {
+                data = new byte[(int) size];
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data, 0, (int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Читаем до конца файла
+            }
+            length = buffer.position();
+        }
+        ByteBuffer header = ByteBuffer.wrap(data, 0, length);
+        if (length < 5 || header.getInt() != MoveJournal.MAGIC || header.get() != MoveJournal.VERSION) {
+            throw new IOException("Не сегмент журнала ходов: " + file);
+        }
+        pos = 5;
+    }
+
+    // false, если запись оборвана
+    private boolean readRecord() {
+        int header = data[pos++] & 0xFF;
+        long time = readVarint();
+        int recordType = header & ~MoveJournal.FLAG_ABSOLUTE_TIME;
+        int count = MoveJournal.fieldCount(recordType);
+        for (int i = 0; i < count; i++) {
+            fields[i] = readVarint();
+        }
+        if (pos > length) {
+            pos = length;
+            return false;
+        }
+        type = recordType;
+        timeMillis = (header & MoveJournal.FLAG_ABSOLUTE_TIME) != 0 ? time : timeMillis + time;
+        return true;
+    }
+
+    // Чтение за концом данных сдвигает pos за length, что readRecord и проверяет
+    private long readVarint() {
+        long v = 0;
+        int shift = 0;
+        while (pos < length) {
+            int b = data[pos++];
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+            shift += 7;
+        }
+        pos = length + 1;
+        return 0;
+    }
+}
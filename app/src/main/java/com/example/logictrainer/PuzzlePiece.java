@@ -2,71 +2,114 @@ package com.example.logictrainer;
 
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Path;
 
-public class PuzzlePiece {
-    private boolean[][] shape;
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.ShapeOrientation;
+
+// Фигура на экране: клеточная модель из engine плюс позиция в пикселях и цвет
+public class PuzzlePiece extends Piece {
     private float x, y; // позиция левого верхнего угла фигуры
     private int color; // Цвет фигуры
 
+    // Индекс поиска касаний, в котором сейчас зарегистрирована фигура, и её слот в нём
+    HitTestIndex hitTestIndex;
+    int hitTestSlot;
+
+    // Контур текущей ориентации в локальных координатах; пересобирается при повороте или смене размера клетки.
+    // Создаётся при первой отрисовке, чтобы логика фигуры работала и в тестах без android.graphics
+    private Path path;
+    private ShapeOrientation pathOrientation;
+    private float pathCellSize;
+
+    public PuzzlePiece(PieceShape pieceShape, int color) {
+        super(pieceShape);
+        this.color = color;
+    }
+
+    public PuzzlePiece(PieceShape pieceShape, int orientationIndex, int color) {
+        super(pieceShape, orientationIndex);
+        this.color = color;
+    }
+
     public PuzzlePiece(boolean[][] shape, int color) {
-        this.shape = shape;
+        super(shape);
         this.color = color;
     }
 
+    // Один drawPath со сдвигом к позиции фигуры, без выделения памяти в установившемся режиме
     public void draw(Canvas canvas, Paint paint, float cellSize) {
         paint.setColor(color); // Устанавливаем цвет фигуры
-        for (int r = 0; r < shape.length; r++) {
-            for (int c = 0; c < shape[r].length; c++) {
-                if (shape[r][c]) {
-                    float left = x + c * cellSize;
-                    float top = y + r * cellSize;
-                    float right = left + cellSize;
-                    float bottom = top + cellSize;
-                    canvas.drawRect(left, top, right, bottom, paint);
-                }
-            }
+        drawAt(canvas, paint, cellSize, x, y);
+    }
+
+    // Контур фигуры в точке (left, top) текущей кистью, например тень будущей позиции
+    public void drawAt(Canvas canvas, Paint paint, float cellSize, float left, float top) {
+        if (pathOrientation != getOrientation() || pathCellSize != cellSize) {
+            rebuildPath(cellSize);
         }
+        canvas.save();
+        canvas.translate(left, top);
+        canvas.drawPath(path, paint);
+        canvas.restore();
     }
 
-    public boolean contains(float touchX, float touchY, float cellSize) {
+    // Соседние клетки строки сливаются в один прямоугольник, строки соприкасаются без зазоров
+    private void rebuildPath(float cellSize) {
+        if (path == null) {
+            path = new Path();
+        }
+        path.rewind();
+        boolean[][] shape = getShape();
         for (int r = 0; r < shape.length; r++) {
-            for (int c = 0; c < shape[r].length; c++) {
-                if (shape[r][c]) {
-                    float left = x + c * cellSize;
-                    float top = y + r * cellSize;
-                    float right = left + cellSize;
-                    float bottom = top + cellSize;
-                    if (touchX >= left && touchX <= right && touchY >= top && touchY <= bottom) {
-                        return true;
-                    }
+            int c = 0;
+            while (c < shape[r].length) {
+                if (!shape[r][c]) {
+                    c++;
+                    continue;
                 }
+                int start = c;
+                while (c < shape[r].length && shape[r][c]) {
+                    c++;
+                }
+                path.addRect(start * cellSize, r * cellSize, c * cellSize, (r + 1) * cellSize, Path.Direction.CW);
             }
         }
-        return false;
+        pathOrientation = getOrientation();
+        pathCellSize = cellSize;
+    }
+
+    public boolean contains(float touchX, float touchY, float cellSize) {
+        return containsPoint(touchX - x, touchY - y, cellSize);
     }
 
     public void setPosition(float newX, float newY) {
         this.x = newX;
         this.y = newY;
+        if (hitTestIndex != null) {
+            hitTestIndex.update(this);
+        }
     }
 
-    public float getX() { return x; }
-    public float getY() { return y; }
-
-    public boolean[][] getShape() { return shape; }
-
-    public int getColor() { return color; }
-
+    @Override
     public void rotate90Clockwise() {
-        int rows = shape.length;
-        int cols = shape[0].length;
-        boolean[][] rotated = new boolean[cols][rows];
+        super.rotate90Clockwise();
+        if (hitTestIndex != null) {
+            hitTestIndex.update(this);
+        }
+    }
 
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                rotated[c][rows - 1 - r] = shape[r][c];
-            }
+    @Override
+    public void rotate90CounterClockwise() {
+        super.rotate90CounterClockwise();
+        if (hitTestIndex != null) {
+            hitTestIndex.update(this);
         }
-        shape = rotated;
     }
+
+    public float getX() { return x; }
+    public float getY() { return y; }
+
+    public int getColor() { return color; }
 }
\ No newline at end of file
@@ -1,8 +1,5 @@
 package com.example.logictrainer;
 
-import android.content.ContentValues;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -14,7 +11,7 @@ public class RegisterActivity extends AppCompatActivity {
     private EditText emailEditText, passwordEditText;
     private Button registerButton;
 
-    private DatabaseHelper databaseHelper;
+    private UserRepository userRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -25,7 +22,7 @@ public class RegisterActivity extends AppCompatActivity {
         passwordEditText = findViewById(R.id.passwordEditText);
         registerButton = findViewById(R.id.registerButton);
 
-        databaseHelper = new DatabaseHelper(this);
+        userRepository = ((LogicTrainerApp) getApplication()).getUserRepository();
 
         registerButton.setOnClickListener(v -> registerUser());
     }
@@ -39,30 +36,23 @@ public class RegisterActivity extends AppCompatActivity {
             return;
         }
 
-        SQLiteDatabase db = databaseHelper.getReadableDatabase();
-        Cursor cursor = db.query(DatabaseHelper.TABLE_USERS,
-                new String[]{DatabaseHelper.COLUMN_EMAIL},
-                DatabaseHelper.COLUMN_EMAIL + "=?",
-                new String[]{email},
-                null, null, null);
-
-        if (cursor.moveToFirst()) {
-            Toast.makeText(this, "Пользователь с таким email уже существует", Toast.LENGTH_SHORT).show();
-            cursor.close();
-            return;
-        }
-        cursor.close();
-
-        ContentValues values = new ContentValues();
-        values.put(DatabaseHelper.COLUMN_EMAIL, email);
-        values.put(DatabaseHelper.COLUMN_PASSWORD, password);
-
-        long id = db.insert(DatabaseHelper.TABLE_USERS, null, values);
-        if (id != -1) {
-            Toast.makeText(this, "Регистрация успешна", Toast.LENGTH_SHORT).show();
-            finish();
-        } else {
-            Toast.makeText(this, "Ошибка регистрации", Toast.LENGTH_SHORT).show();
-        }
+        // Проверка и вставка идут в фоне; кнопка выключена, пока нет ответа
+        registerButton.setEnabled(false);
+        userRepository.register(email, password, result -> {
+            if (isFinishing() || isDestroyed()) return;
+            registerButton.setEnabled(true);
+            switch (result) {
+                case REGISTERED:
+                    Toast.makeText(this, "Регистрация успешна", Toast.LENGTH_SHORT).show();
+                    finish();
+                    break;
+                case EMAIL_TAKEN:
+                    Toast.makeText(this, "Пользователь с таким email уже существует", Toast.LENGTH_SHORT).show();
+                    break;
+                default:
+                    Toast.makeText(this, "Ошибка регистрации", Toast.LENGTH_SHORT).show();
+                    break;
+            }
+        });
     }
 }
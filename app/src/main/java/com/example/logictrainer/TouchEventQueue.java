@@ -0,0 +1,81 @@
+package com.example.logictrainer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Передача касаний из главного потока в поток отрисовки без блокировок и без выделения памяти:
+// кольцевой буфер на один производитель и один потребитель. События хранятся в параллельных массивах
+// примитивов, индексы публикуются через lazySet.
+// Последний слот оставлен под завершающие события (UP, CANCEL): прочие при почти полной очереди
+// отбрасываются, поэтому у каждого принятого DOWN найдётся место для его завершения.
+class TouchEventQueue {
+    static final int ACTION_DOWN = 0;
+    static final int ACTION_MOVE = 1;
+    static final int ACTION_UP = 2;
+    static final int ACTION_DOUBLE_TAP = 3;
+    static final int ACTION_CANCEL = 4;
+
+    private final int mask;
+    private final int[] actions;
+    private final float[] xs;
+    private final float[] ys;
+    private final long[] eventTimes;
+
+    private final AtomicLong head = new AtomicLong(); // Следующее событие для потребителя
+    private final AtomicLong tail = new AtomicLong(); // Следующий свободный слот производителя
+
+    // Текущее событие после poll
+    private int action;
+    private float x, y;
+    private long eventTime;
+
+    TouchEventQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ёмкость должна быть степенью двойки: " + capacity);
+        }
+        mask = capacity - 1;
+        actions = new int[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        eventTimes = new long[capacity];
+    }
+
+    // Только из потока-производителя; false, если очередь заполнена
+    boolean offer(int action, float x, float y, long eventTime) {
+        long t = tail.get();
+        boolean terminal = action == ACTION_UP || action == ACTION_CANCEL;
+        if (t - head.get() >= (terminal ? mask + 1 : mask)) {
+            return false;
+        }
+        int slot = (int) t & mask;
+        actions[slot] = action;
+        xs[slot] = x;
+        ys[slot] = y;
+        eventTimes[slot] = eventTime;
+        tail.lazySet(t + 1); // Публикует запись слота
+        return true;
+    }
+
+    // Только из потока-потребителя: берёт следующее событие в getAction/getX/getY/getEventTime
+    boolean poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int slot = (int) h & mask;
+        action = actions[slot];
+        x = xs[slot];
+        y = ys[slot];
+        eventTime = eventTimes[slot];
+        head.lazySet(h + 1); // Освобождает слот для производителя
+        return true;
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    int getAction() { return action; }
+    float getX() { return x; }
+    float getY() { return y; }
+    long getEventTime() { return eventTime; }
+}
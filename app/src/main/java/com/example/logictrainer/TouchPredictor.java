@@ -0,0 +1,86 @@
+package com.example.logictrainer;
+
+// Оценка положения пальца к следующему vsync: скорость по последним точкам (включая исторические
+// точки MotionEvent), линейная экстраполяция на один кадр. Без выделения памяти, один поток.
+class TouchPredictor {
+    private static final int CAPACITY = 16;
+    private static final long VELOCITY_WINDOW_MS = 40;  // Точки старше этого окна не влияют на скорость
+    private static final long MIN_SPAN_MS = 4;          // Слишком короткий интервал даёт шумную скорость
+    private static final long MAX_HORIZON_MS = 20;      // Дальше прогноз заметно промахивается на поворотах
+
+    private final float[] xs = new float[CAPACITY];
+    private final float[] ys = new float[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    private int size;
+    private int last = -1; // Индекс последней точки в кольце
+
+    private float frameIntervalMillis = 1000f / 60;
+
+    private float predictedX, predictedY;
+
+    void setFrameIntervalMillis(float frameIntervalMillis) {
+        this.frameIntervalMillis = frameIntervalMillis;
+    }
+
+    // Новый жест
+    void reset() {
+        size = 0;
+        last = -1;
+    }
+
+    void addSample(float x, float y, long timeMillis) {
+        if (size > 0 && timeMillis < times[last]) {
+            return; // Точки приходят по возрастанию времени, иное — мусор
+        }
+        last = (last + 1) % CAPACITY;
+        xs[last] = x;
+        ys[last] = y;
+        times[last] = timeMillis;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    float getLastX() { return xs[last]; }
+    float getLastY() { return ys[last]; }
+
+    // Положение к моменту nowMillis + один кадр; результат в getPredictedX/Y
+    void predict(long nowMillis) {
+        predictedX = xs[last];
+        predictedY = ys[last];
+        if (size < 2) {
+            return;
+        }
+
+        long lastTime = times[last];
+        if (nowMillis - lastTime > VELOCITY_WINDOW_MS) {
+            return; // Палец стоит: прогнозировать нечего
+        }
+        float horizon = Math.min(nowMillis + frameIntervalMillis - lastTime, MAX_HORIZON_MS);
+        if (horizon <= 0) {
+            return;
+        }
+
+        // Самая старая точка в окне скорости
+        int oldest = last;
+        for (int i = 1; i < size; i++) {
+            int index = (last - i + CAPACITY) % CAPACITY;
+            if (lastTime - times[index] > VELOCITY_WINDOW_MS) {
+                break;
+            }
+            oldest = index;
+        }
+        long span = lastTime - times[oldest];
+        if (span < MIN_SPAN_MS) {
+            return;
+        }
+
+        float vx = (xs[last] - xs[oldest]) / span;
+        float vy = (ys[last] - ys[oldest]) / span;
+        predictedX += vx * horizon;
+        predictedY += vy * horizon;
+    }
+
+    float getPredictedX() { return predictedX; }
+    float getPredictedY() { return predictedY; }
+}
@@ -0,0 +1,252 @@
+package com.example.logictrainer;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Доступ к таблице пользователей только через один фоновый поток-писатель: главный поток не трогает диск.
+// Операции выполняются строго по очереди. Частые запросы скомпилированы один раз (SQLiteStatement)
+// и переиспользуются.
+// Результат приходит в главный поток через Callback; Future — для тех, кому нужно дождаться записи.
+// Один экземпляр на процесс (LogicTrainerApp): соединение открывается один раз в фоне и не закрывается,
+// так что ни схема, ни скомпилированные запросы не готовятся заново при смене экранов.
+// Попытки копятся и пишутся пачками: по ATTEMPT_BATCH_SIZE штук или через ATTEMPT_FLUSH_DELAY_MS после первой.
+public class UserRepository {
+    private static final int ATTEMPT_BATCH_SIZE = 32;
+    private static final long ATTEMPT_FLUSH_DELAY_MS = 2_000;
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    public enum RegisterResult {
+        REGISTERED,
+        EMAIL_TAKEN,
+        FAILED
+    }
+
+    public static final class LoginResult {
+        public enum Status {
+            OK,
+            WRONG_CREDENTIALS,
+            FAILED
+        }
+
+        private final Status status;
+        private final int userId;
+        private final int level;
+        private final String error;
+
+        private LoginResult(Status status, int userId, int level, String error) {
+            this.status = status;
+            this.userId = userId;
+            this.level = level;
+            this.error = error;
+        }
+
+        public Status getStatus() { return status; }
+        public int getUserId() { return userId; }
+        public int getLevel() { return level; }
+        public String getError() { return error; }
+    }
+
+    private static final String SQL_UPDATE_LEVEL =
+            "UPDATE " + DatabaseHelper.TABLE_USERS + " SET " + DatabaseHelper.COLUMN_LEVEL + "=? WHERE "
+                    + DatabaseHelper.COLUMN_ID + "=?";
+    private static final String SQL_INSERT_USER =
+            "INSERT INTO " + DatabaseHelper.TABLE_USERS + " (" + DatabaseHelper.COLUMN_EMAIL + ", "
+                    + DatabaseHelper.COLUMN_PASSWORD + ") VALUES (?, ?)";
+    // id и уровень упакованы в одно число (id в старших 32 битах), чтобы вход обходился без курсора
+    private static final String SQL_LOGIN =
+            "SELECT (" + DatabaseHelper.COLUMN_ID + " << 32) | " + DatabaseHelper.COLUMN_LEVEL + " FROM "
+                    + DatabaseHelper.TABLE_USERS + " WHERE " + DatabaseHelper.COLUMN_EMAIL + "=? AND "
+                    + DatabaseHelper.COLUMN_PASSWORD + "=?";
+
+    private final DatabaseHelper databaseHelper;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "db-writer");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final DatabaseMetrics metrics = new DatabaseMetrics();
+
+    // Только в потоке writer: соединение и скомпилированные запросы открываются при первом обращении
+    // и живут до конца процесса
+    private SQLiteDatabase db;
+    private SQLiteStatement updateLevelStatement;
+    private SQLiteStatement insertUserStatement;
+    private SQLiteStatement loginStatement;
+    private AttemptStore attemptStore;
+    private final List<GameAttempt> pendingAttempts = new ArrayList<>();
+    private boolean attemptFlushScheduled;
+
+    public UserRepository(Context context) {
+        databaseHelper = new DatabaseHelper(context.getApplicationContext());
+    }
+
+    DatabaseMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Открывает базу заранее, чтобы первый вход не ждал создания схемы
+    public void warmUp() {
+        writer.execute(() -> {
+            try {
+                open();
+            } catch (SQLiteException e) {
+                // Повторим при первом запросе, там ошибка дойдёт до экрана
+            }
+        });
+    }
+
+    public Future<LoginResult> login(String email, String password, Callback<LoginResult> callback) {
+        return writer.submit(() -> {
+            LoginResult result;
+            try {
+                open();
+                long start = System.nanoTime();
+                try {
+                    loginStatement.bindString(1, email);
+                    loginStatement.bindString(2, password);
+                    long packed = loginStatement.simpleQueryForLong();
+                    result = new LoginResult(LoginResult.Status.OK, (int) (packed >>> 32), (int) packed, null);
+                } catch (SQLiteDoneException e) {
+                    result = new LoginResult(LoginResult.Status.WRONG_CREDENTIALS, -1, 0, null);
+                } finally {
+                    loginStatement.clearBindings(); // Пароль не держим в привязках
+                }
+                metrics.query.recordNanos(System.nanoTime() - start);
+            } catch (SQLiteException e) {
+                result = new LoginResult(LoginResult.Status.FAILED, -1, 0, e.getMessage());
+            }
+            deliver(callback, result);
+            return result;
+        });
+    }
+
+    // Сохраняет уровень пользователя; true, если строка пользователя обновлена
+    public Future<Boolean> saveLevel(int userId, int level, Callback<Boolean> callback) {
+        return writer.submit(() -> {
+            boolean saved;
+            try {
+                open();
+                long start = System.nanoTime();
+                updateLevelStatement.bindLong(1, level);
+                updateLevelStatement.bindLong(2, userId);
+                saved = updateLevelStatement.executeUpdateDelete() > 0;
+                metrics.write.recordNanos(System.nanoTime() - start);
+            } catch (SQLiteException e) {
+                saved = false;
+            }
+            deliver(callback, saved);
+            return saved;
+        });
+    }
+
+    // Занятость email проверяет уникальный индекс при вставке, отдельного запроса не нужно
+    public Future<RegisterResult> register(String email, String password, Callback<RegisterResult> callback) {
+        return writer.submit(() -> {
+            RegisterResult result;
+            try {
+                open();
+                long start = System.nanoTime();
+                try {
+                    insertUserStatement.bindString(1, email);
+                    insertUserStatement.bindString(2, password);
+                    result = insertUserStatement.executeInsert() != -1
+                            ? RegisterResult.REGISTERED : RegisterResult.FAILED;
+                } catch (SQLiteConstraintException e) {
+                    result = RegisterResult.EMAIL_TAKEN;
+                } finally {
+                    insertUserStatement.clearBindings(); // Пароль не держим в привязках
+                }
+                metrics.write.recordNanos(System.nanoTime() - start);
+            } catch (SQLiteException e) {
+                result = RegisterResult.FAILED;
+            }
+            deliver(callback, result);
+            return result;
+        });
+    }
+
+    // Попытка ставится в очередь на запись; сразу на диск не идёт
+    public void recordAttempt(GameAttempt attempt) {
+        writer.execute(() -> {
+            pendingAttempts.add(attempt);
+            if (pendingAttempts.size() >= ATTEMPT_BATCH_SIZE) {
+                flushAttemptsNow();
+            } else if (!attemptFlushScheduled) {
+                attemptFlushScheduled = true;
+                writer.schedule(this::flushAttemptsNow, ATTEMPT_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    // Дописывает накопленные попытки, не дожидаясь таймера (например, при уходе приложения в фон)
+    public void flushAttempts() {
+        writer.execute(this::flushAttemptsNow);
+    }
+
+    // Сводка по всем уровням пользователя; накопленные попытки сначала дописываются
+    public Future<List<LevelStats>> loadLevelStats(int userId, Callback<List<LevelStats>> callback) {
+        return writer.submit(() -> {
+            List<LevelStats> stats;
+            try {
+                open();
+                flushAttemptsNow();
+                long start = System.nanoTime();
+                stats = attemptStore.loadStats(userId);
+                metrics.query.recordNanos(System.nanoTime() - start);
+            } catch (SQLiteException e) {
+                stats = new ArrayList<>();
+            }
+            deliver(callback, stats);
+            return stats;
+        });
+    }
+
+    private void flushAttemptsNow() {
+        attemptFlushScheduled = false;
+        if (pendingAttempts.isEmpty()) return;
+        try {
+            open();
+            long start = System.nanoTime();
+            attemptStore.insertBatch(pendingAttempts);
+            metrics.write.recordNanos(System.nanoTime() - start);
+        } catch (SQLiteException e) {
+            // Статистика не критична: пачка теряется, чтобы очередь не росла при постоянной ошибке
+        }
+        pendingAttempts.clear();
+    }
+
+    private void open() {
+        if (db != null) return;
+        long start = System.nanoTime();
+        SQLiteDatabase database = databaseHelper.getWritableDatabase();
+        updateLevelStatement = database.compileStatement(SQL_UPDATE_LEVEL);
+        insertUserStatement = database.compileStatement(SQL_INSERT_USER);
+        loginStatement = database.compileStatement(SQL_LOGIN);
+        attemptStore = new AttemptStore(database);
+        db = database;
+        metrics.open.recordNanos(System.nanoTime() - start);
+    }
+
+    private <T> void deliver(Callback<T> callback, T result) {
+        if (callback != null) {
+            mainHandler.post(() -> callback.onResult(result));
+        }
+    }
+}
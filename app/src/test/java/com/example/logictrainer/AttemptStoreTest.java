@@ -0,0 +1,134 @@
+package com.example.logictrainer;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+// Сводка level_stats, которую AttemptStore ведёт инкрементально, должна совпадать с агрегацией по attempts
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+public class AttemptStoreTest {
+    private static final int USER = 7;
+    private static final int OTHER_USER = 8;
+    private static final int ATTEMPT_COUNT = 20_000;
+    private static final int BATCH = 32;
+    private static final int LEVELS = 40;
+
+    private DatabaseHelper helper;
+    private SQLiteDatabase db;
+    private AttemptStore store;
+
+    @Before
+    public void setUp() {
+        RuntimeEnvironment.getApplication().deleteDatabase("logic_trainer.db");
+        helper = new DatabaseHelper(RuntimeEnvironment.getApplication());
+        db = helper.getWritableDatabase();
+        store = new AttemptStore(db);
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+        RuntimeEnvironment.getApplication().deleteDatabase("logic_trainer.db");
+    }
+
+    @Test
+    public void emptyHistory_hasNoStats() {
+        assertTrue(store.loadStats(USER).isEmpty());
+    }
+
+    @Test
+    public void rollup_tracksBestAndAverageOfWinsOnly() {
+        store.insertBatch(Arrays.asList(
+                attempt(USER, 3, 50_000, GameAttempt.Result.SOLVED),
+                attempt(USER, 3, 10_000, GameAttempt.Result.RESTARTED),
+                attempt(USER, 3, 30_000, GameAttempt.Result.SOLVED),
+                attempt(USER, 3, 60_000, GameAttempt.Result.TIMED_OUT),
+                attempt(USER, 4, 5_000, GameAttempt.Result.ABANDONED)));
+
+        List<LevelStats> stats = store.loadStats(USER);
+        assertEquals(2, stats.size());
+
+        LevelStats level3 = stats.get(0);
+        assertEquals(3, level3.getLevel());
+        assertEquals(4, level3.getAttempts());
+        assertEquals(2, level3.getWins());
+        assertEquals(1, level3.getTimeouts());
+        assertEquals(1, level3.getRestarts());
+        assertEquals(30_000, level3.getBestTimeMillis());
+        assertEquals(40_000, level3.getAverageWinTimeMillis());
+
+        LevelStats level4 = stats.get(1);
+        assertEquals(1, level4.getAttempts());
+        assertEquals(-1, level4.getBestTimeMillis());
+        assertEquals(-1, level4.getAverageWinTimeMillis());
+    }
+
+    @Test
+    public void rollup_matchesAggregateOverHistory() {
+        Random random = new Random(5);
+        GameAttempt.Result[] results = GameAttempt.Result.values();
+        List<GameAttempt> batch = new ArrayList<>();
+        for (int i = 0; i < ATTEMPT_COUNT; i++) {
+            int user = random.nextInt(4) == 0 ? OTHER_USER : USER;
+            batch.add(attempt(user, 1 + random.nextInt(LEVELS), 1_000 + random.nextInt(120_000),
+                    results[random.nextInt(results.length)]));
+            if (batch.size() == BATCH) {
+                store.insertBatch(batch);
+                batch.clear();
+            }
+        }
+        store.insertBatch(batch);
+        List<LevelStats> stats = store.loadStats(USER);
+
+        try (Cursor cursor = db.rawQuery("SELECT level, COUNT(*), SUM(result = 0), SUM(result = 1), SUM(result = 2), "
+                + "MIN(CASE WHEN result = 0 THEN duration_ms END), "
+                + "CAST(AVG(CASE WHEN result = 0 THEN duration_ms END) AS INTEGER) "
+                + "FROM attempts WHERE user_id = ? GROUP BY level ORDER BY level", new String[]{String.valueOf(USER)})) {
+            int i = 0;
+            while (cursor.moveToNext()) {
+                LevelStats level = stats.get(i++);
+                assertEquals(cursor.getInt(0), level.getLevel());
+                assertEquals(cursor.getInt(1), level.getAttempts());
+                assertEquals(cursor.getInt(2), level.getWins());
+                assertEquals(cursor.getInt(3), level.getTimeouts());
+                assertEquals(cursor.getInt(4), level.getRestarts());
+                assertEquals(cursor.isNull(5) ? -1 : cursor.getLong(5), level.getBestTimeMillis());
+                assertEquals(cursor.isNull(6) ? -1 : cursor.getLong(6), level.getAverageWinTimeMillis());
+            }
+            assertEquals(stats.size(), i);
+        }
+    }
+
+    @Test
+    public void statsLookup_usesPrimaryKey() {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN SELECT * FROM level_stats WHERE user_id = ? ORDER BY level",
+                new String[]{"1"})) {
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(cursor.getColumnIndexOrThrow("detail"))).append('\n');
+            }
+        }
+        assertTrue(plan.toString(), plan.toString().contains("PRIMARY KEY"));
+        assertFalse(plan.toString(), plan.toString().contains("TEMP B-TREE"));
+    }
+
+    private static GameAttempt attempt(int user, int level, long durationMillis, GameAttempt.Result result) {
+        return new GameAttempt(user, level, 42L, durationMillis, 12, result, 1_700_000_000_000L);
+    }
+}
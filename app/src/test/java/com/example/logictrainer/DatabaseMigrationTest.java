@@ -0,0 +1,199 @@
+package com.example.logictrainer;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// Обновление схемы через настоящий SQLiteOpenHelper: база старой версии создаётся в файле DatabaseHelper
+// и открывается заново, onUpgrade прогоняет шаги DatabaseMigrations.
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33, application = Application.class)
+public class DatabaseMigrationTest {
+    private static final int USER_COUNT = 100_000;
+
+    // Схема версии 1, как её создавал DatabaseHelper до появления миграций
+    private static final String V1_SCHEMA =
+            "CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, email TEXT NOT NULL, "
+                    + "password TEXT NOT NULL, level INTEGER DEFAULT 1);";
+
+    private static final String V2_EMAIL_INDEX = "CREATE UNIQUE INDEX index_users_email ON users (email)";
+
+    private static final String LOGIN_SQL = "SELECT id, level FROM users WHERE email=? AND password=?";
+
+    private Context context;
+    private File databaseFile;
+    private DatabaseHelper helper;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        databaseFile = context.getDatabasePath("logic_trainer.db");
+        databaseFile.getParentFile().mkdirs();
+        SQLiteDatabase.deleteDatabase(databaseFile);
+    }
+
+    @After
+    public void tearDown() {
+        if (helper != null) {
+            helper.close();
+        }
+        SQLiteDatabase.deleteDatabase(databaseFile);
+    }
+
+    @Test
+    public void migrationSteps_coverEveryVersion() {
+        assertEquals(DatabaseHelper.DATABASE_VERSION, DatabaseMigrations.latestVersion());
+    }
+
+    @Test
+    public void upgradedSchema_matchesFreshInstall() {
+        helper = new DatabaseHelper(context);
+        List<String> fresh = schema(helper.getReadableDatabase());
+        helper.close();
+        helper = null;
+
+        for (int version = 1; version < DatabaseHelper.DATABASE_VERSION; version++) {
+            SQLiteDatabase.deleteDatabase(databaseFile);
+            createVersion(version).close();
+            helper = new DatabaseHelper(context);
+            assertEquals("с версии " + version, fresh, schema(helper.getReadableDatabase()));
+            helper.close();
+            helper = null;
+        }
+    }
+
+    @Test
+    public void upgradeFromV1_keepsUsersAndIndexesEmail() {
+        SQLiteDatabase old = createVersion(1);
+        fillUsers(old, USER_COUNT);
+        String planBefore = queryPlan(old);
+        assertFalse("до миграции вход перебирает таблицу: " + planBefore,
+                planBefore.contains(DatabaseMigrations.INDEX_USERS_EMAIL));
+        old.close();
+
+        helper = new DatabaseHelper(context);
+        SQLiteDatabase db = helper.getWritableDatabase();
+        assertEquals(DatabaseHelper.DATABASE_VERSION, db.getVersion());
+        assertEquals(USER_COUNT, count(db, "SELECT COUNT(*) FROM users"));
+        assertEquals(USER_COUNT / 2, count(db, "SELECT COUNT(*) FROM users WHERE level > 1"));
+        try (Cursor cursor = db.rawQuery(LOGIN_SQL, new String[]{"user777@example.com", "pass777"})) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(778, cursor.getInt(0));
+            assertEquals(1, cursor.getInt(1));
+        }
+
+        // План запроса, а не время: поиск по email должен идти через индекс, а не перебором таблицы
+        String planAfter = queryPlan(db);
+        assertTrue("после миграции вход ищет по индексу: " + planAfter,
+                planAfter.contains("USING INDEX " + DatabaseMigrations.INDEX_USERS_EMAIL));
+
+        try {
+            db.execSQL("INSERT INTO users (email, password) VALUES ('user1@example.com', 'x')");
+            fail("после миграции email должен быть уникальным");
+        } catch (SQLiteConstraintException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void upgradeFromV1_mergesDuplicateEmails() {
+        SQLiteDatabase old = createVersion(1);
+        old.execSQL("INSERT INTO users (email, password, level) VALUES ('a@example.com', 'one', 3)");
+        old.execSQL("INSERT INTO users (email, password, level) VALUES ('b@example.com', 'two', 4)");
+        old.execSQL("INSERT INTO users (email, password, level) VALUES ('a@example.com', 'three', 7)");
+        old.close();
+
+        helper = new DatabaseHelper(context);
+        SQLiteDatabase db = helper.getReadableDatabase();
+        assertEquals(2, count(db, "SELECT COUNT(*) FROM users"));
+        try (Cursor cursor = db.rawQuery("SELECT id, password, level FROM users WHERE email='a@example.com'", null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0)); // Остаётся самая ранняя запись
+            assertEquals("one", cursor.getString(1));
+            assertEquals(7, cursor.getInt(2)); // С наибольшим уровнем среди повторов
+        }
+        assertEquals(4, count(db, "SELECT level FROM users WHERE email='b@example.com'"));
+    }
+
+    // База в файле DatabaseHelper со схемой указанной версии
+    private SQLiteDatabase createVersion(int version) {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(databaseFile, null);
+        switch (version) {
+            case 1:
+                db.execSQL(V1_SCHEMA);
+                break;
+            case 2:
+                db.execSQL(V1_SCHEMA);
+                db.execSQL(V2_EMAIL_INDEX);
+                break;
+            default:
+                throw new AssertionError("Нет схемы версии " + version + " для теста");
+        }
+        db.setVersion(version);
+        return db;
+    }
+
+    // Уровень 2 у нечётных id, 1 у остальных
+    private static void fillUsers(SQLiteDatabase db, int count) {
+        db.beginTransaction();
+        try {
+            SQLiteStatement insert = db.compileStatement("INSERT INTO users (email, password, level) VALUES (?, ?, ?)");
+            for (int i = 0; i < count; i++) {
+                insert.bindString(1, "user" + i + "@example.com");
+                insert.bindString(2, "pass" + i);
+                insert.bindLong(3, i % 2 == 0 ? 2 : 1);
+                insert.executeInsert();
+            }
+            insert.close();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static String queryPlan(SQLiteDatabase db) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + LOGIN_SQL, new String[]{"x", "y"})) {
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(cursor.getColumnIndexOrThrow("detail"))).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    // Таблицы и индексы без служебных таблиц SQLite и Android
+    private static List<String> schema(SQLiteDatabase db) {
+        List<String> sql = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT sql FROM sqlite_master WHERE sql IS NOT NULL "
+                + "AND name NOT LIKE 'sqlite_%' AND name != 'android_metadata' ORDER BY name", null)) {
+            while (cursor.moveToNext()) {
+                sql.add(cursor.getString(0));
+            }
+        }
+        return sql;
+    }
+
+    private static long count(SQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.rawQuery(sql, null)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+}
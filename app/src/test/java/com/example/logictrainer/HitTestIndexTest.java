@@ -0,0 +1,72 @@
+package com.example.logictrainer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class HitTestIndexTest {
+    private static final float CELL = 100f;
+
+    private PuzzlePiece square;
+    private PuzzlePiece line;
+    private HitTestIndex index;
+
+    @Before
+    public void setUp() {
+        square = new PuzzlePiece(new boolean[][]{{true, true}, {true, true}}, 0);
+        line = new PuzzlePiece(new boolean[][]{{true, true, true}}, 0);
+        square.setPosition(0, 0);
+        line.setPosition(50, 50);
+
+        index = new HitTestIndex();
+        index.reset(new ArrayList<>(Arrays.asList(square, line)), 1000, 1000, CELL);
+    }
+
+    @Test
+    public void overlappingPieces_returnTopOfZOrder() {
+        assertSame(line, index.findTopmost(120, 120));
+        index.bringToFront(square);
+        assertSame(square, index.findTopmost(120, 120));
+        assertSame(line, index.findTopmost(300, 100));
+    }
+
+    @Test
+    public void emptyCellsAndOutsideView_returnNull() {
+        PuzzlePiece corner = new PuzzlePiece(new boolean[][]{{true, false}, {true, true}}, 0);
+        corner.setPosition(500, 500);
+        index.reset(new ArrayList<>(Arrays.asList(corner)), 1000, 1000, CELL);
+
+        assertNull(index.findTopmost(650, 550)); // Пустая клетка внутри прямоугольника
+        assertSame(corner, index.findTopmost(650, 650));
+        assertNull(index.findTopmost(-10, 550));
+        assertNull(index.findTopmost(550, 1200));
+    }
+
+    @Test
+    public void setPositionAndRotation_updateIndex() {
+        line.setPosition(700, 800);
+        assertSame(square, index.findTopmost(120, 120));
+        assertNull(index.findTopmost(300, 100));
+        assertSame(line, index.findTopmost(950, 850));
+
+        line.rotate90Clockwise(); // Теперь вертикальная линия 1x3
+        assertNull(index.findTopmost(950, 850));
+        assertSame(line, index.findTopmost(750, 980));
+    }
+
+    @Test
+    public void detachedPieces_doNotUpdateOldIndex() {
+        PuzzlePiece other = new PuzzlePiece(new boolean[][]{{true}}, 0);
+        other.setPosition(0, 0);
+        index.reset(new ArrayList<>(Arrays.asList(other)), 1000, 1000, CELL);
+
+        square.setPosition(500, 500);
+        assertNull(square.hitTestIndex);
+        assertSame(other, index.findTopmost(50, 50));
+        assertNull(index.findTopmost(550, 550));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.logictrainer;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void buckets_coverValueWithBoundedError() {
+        for (long micros : new long[]{0, 1, 15, 16, 17, 100, 999, 16_667, 1_000_000, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(bucket < LatencyHistogram.BUCKET_COUNT);
+            long lower = LatencyHistogram.bucketLowerBound(bucket);
+            assertTrue(lower <= micros);
+            assertTrue(micros - lower <= lower / 8); // Погрешность не больше 12.5%
+            if (bucket + 1 < LatencyHistogram.BUCKET_COUNT) {
+                assertTrue(LatencyHistogram.bucketLowerBound(bucket + 1) > micros);
+            }
+        }
+    }
+
+    @Test
+    public void percentiles_followRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram("frame");
+        for (int i = 0; i < 90; i++) {
+            histogram.recordMicros(8);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.recordNanos(20_000_000L); // 20 мс
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(8, histogram.percentileMicros(50));
+        assertEquals(8, histogram.percentileMicros(90));
+        long p99 = histogram.percentileMicros(99);
+        assertTrue(p99 <= 20_000 && p99 > 17_500);
+        assertEquals(20_000, histogram.getMaxMicros());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentileMicros(99));
+    }
+
+    @Test
+    public void dump_listsNonEmptyBuckets() {
+        GameMetrics metrics = new GameMetrics();
+        metrics.frameDraw.recordMicros(5);
+        metrics.frameDraw.recordMicros(5);
+
+        StringWriter out = new StringWriter();
+        metrics.dump(out);
+
+        assertTrue(out.toString().contains("frame_draw 5 2" + System.lineSeparator()));
+        assertFalse(out.toString().contains("touch_to_frame 0"));
+    }
+}
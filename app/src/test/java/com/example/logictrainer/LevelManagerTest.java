@@ -0,0 +1,26 @@
+package com.example.logictrainer;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LevelManagerTest {
+    @Test
+    public void repeatedLevel_returnsFreshPiecesOfSharedShapes() {
+        LevelManager levelManager = new LevelManager();
+        levelManager.setSeed(1L);
+
+        List<PuzzlePiece> first = levelManager.getPiecesForLevel(3);
+        first.get(0).rotate90Clockwise();
+        List<PuzzlePiece> restarted = levelManager.getPiecesForLevel(3);
+
+        assertEquals(1, levelManager.getLevelCache().getHits());
+        assertEquals(first.size(), restarted.size());
+        assertNotSame(first.get(0), restarted.get(0));
+        assertSame(first.get(0).getPieceShape(), restarted.get(0).getPieceShape());
+        assertEquals(0, restarted.get(0).getOrientationIndex());
+        assertTrue(levelManager.isSolvable(restarted));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.logictrainer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MoveJournalTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void records_roundTrip() throws Exception {
+        long before = System.currentTimeMillis();
+        MoveJournal journal = new MoveJournal(dir);
+        journal.levelStart(7, 3, -1234567890123L);
+        journal.pickUp(2, -1, -1);
+        journal.drop(2, 1, 3, true);
+        journal.drop(1, 0, 9, false);
+        journal.rotate(0, 3, true);
+        journal.rotate(4, 1, false);
+        journal.levelResult(3, GameAttempt.Result.SOLVED.code, 45_000, 12);
+        journal.close();
+        long after = System.currentTimeMillis();
+
+        MoveJournalReader reader = new MoveJournalReader(dir);
+        expect(reader, MoveJournal.TYPE_LEVEL_START, 7, 3, -1234567890123L);
+        assertTrue(reader.getTimeMillis() >= before && reader.getTimeMillis() <= after);
+        expect(reader, MoveJournal.TYPE_PICK_UP, 2, -1, -1);
+        expect(reader, MoveJournal.TYPE_DROP, 2, 1, 3);
+        expect(reader, MoveJournal.TYPE_DROP_REJECTED, 1, 0, 9);
+        expect(reader, MoveJournal.TYPE_ROTATE, 0, 3);
+        expect(reader, MoveJournal.TYPE_ROTATE_REJECTED, 4, 1);
+        expect(reader, MoveJournal.TYPE_LEVEL_RESULT, 3, 0, 45_000, 12);
+        assertTrue(reader.getTimeMillis() >= before && reader.getTimeMillis() <= after);
+        assertFalse(reader.next());
+        assertEquals(0, journal.getDroppedRecords());
+    }
+
+    @Test
+    public void segments_rollAndKeepNewest() throws Exception {
+        // Несколько сессий: close() дописывает каждую хотя бы в один сегмент, даже если писатель отставал
+        // и часть записей отброшена, так что сегментов заведомо больше трёх при любой скорости потока
+        int sessions = 5;
+        int count = 50_000;
+        long dropped = 0;
+        for (int s = 0; s < sessions; s++) {
+            MoveJournal journal = new MoveJournal(dir, 1024, 3);
+            for (int i = s * count / sessions; i < (s + 1) * count / sessions; i++) {
+                journal.pickUp(i, i % 7, i % 11);
+            }
+            journal.close();
+            dropped += journal.getDroppedRecords();
+        }
+
+        List<File> segments = MoveJournalReader.segments(dir);
+        assertEquals(3, segments.size());
+
+        // Старые сегменты удалены, в оставшихся записи идут подряд (кроме отброшенных при переполнении)
+        MoveJournalReader reader = new MoveJournalReader(dir);
+        long last = -1;
+        int read = 0;
+        while (reader.next()) {
+            assertEquals(MoveJournal.TYPE_PICK_UP, reader.getType());
+            long piece = reader.getField(0);
+            assertTrue(piece > last);
+            assertEquals(piece % 7, reader.getField(1));
+            assertEquals(piece % 11, reader.getField(2));
+            last = piece;
+            read++;
+        }
+        assertTrue(read > 0);
+        assertTrue(read < count);
+        assertTrue(last == count - 1 || dropped > 0);
+    }
+
+    @Test
+    public void truncatedTail_isSkipped() throws Exception {
+        MoveJournal journal = new MoveJournal(dir);
+        journal.pickUp(1, 2, 3);
+        journal.levelResult(5, GameAttempt.Result.TIMED_OUT.code, 90_000, 40);
+        journal.close();
+
+        File segment = MoveJournalReader.segments(dir).get(0);
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        MoveJournalReader reader = new MoveJournalReader(dir);
+        expect(reader, MoveJournal.TYPE_PICK_UP, 1, 2, 3);
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void reopenedJournal_startsNewSegment() throws Exception {
+        MoveJournal first = new MoveJournal(dir);
+        first.pickUp(1, 0, 0);
+        first.close();
+        MoveJournal second = new MoveJournal(dir);
+        second.pickUp(2, 0, 0);
+        second.close();
+
+        assertEquals(2, MoveJournalReader.segments(dir).size());
+        MoveJournalReader reader = new MoveJournalReader(dir);
+        expect(reader, MoveJournal.TYPE_PICK_UP, 1, 0, 0);
+        expect(reader, MoveJournal.TYPE_PICK_UP, 2, 0, 0);
+        assertFalse(reader.next());
+    }
+
+    private static void expect(MoveJournalReader reader, int type, long... fields) throws IOException {
+        assertTrue(reader.next());
+        assertEquals(type, reader.getType());
+        assertEquals(fields.length, reader.getFieldCount());
+        for (int i = 0; i < fields.length; i++) {
+            assertEquals(fields[i], reader.getField(i));
+        }
+    }
+}
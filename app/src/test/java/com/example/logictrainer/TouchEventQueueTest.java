@@ -0,0 +1,45 @@
+package com.example.logictrainer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TouchEventQueueTest {
+    private static final int CAPACITY = 8;
+
+    @Test
+    public void fullQueue_stillAcceptsTerminalEvent() {
+        TouchEventQueue queue = new TouchEventQueue(CAPACITY);
+        assertTrue(queue.offer(TouchEventQueue.ACTION_DOWN, 1, 1, 0));
+        int moves = 0;
+        while (queue.offer(TouchEventQueue.ACTION_MOVE, 2, 2, moves)) {
+            moves++;
+        }
+        assertEquals(CAPACITY - 2, moves);
+        assertFalse(queue.offer(TouchEventQueue.ACTION_DOUBLE_TAP, 3, 3, 0));
+        assertTrue(queue.offer(TouchEventQueue.ACTION_UP, 4, 4, 100));
+        assertFalse(queue.offer(TouchEventQueue.ACTION_CANCEL, 5, 5, 101));
+
+        int last = -1;
+        int count = 0;
+        while (queue.poll()) {
+            last = queue.getAction();
+            count++;
+        }
+        assertEquals(CAPACITY, count);
+        assertEquals(TouchEventQueue.ACTION_UP, last);
+        assertEquals(4f, queue.getX(), 0f);
+    }
+
+    @Test
+    public void lastFreeSlot_onlyForTerminalEvents() {
+        TouchEventQueue queue = new TouchEventQueue(CAPACITY);
+        for (int i = 0; i < CAPACITY - 1; i++) {
+            assertTrue(queue.offer(TouchEventQueue.ACTION_MOVE, 0, 0, i));
+        }
+        assertFalse(queue.offer(TouchEventQueue.ACTION_DOWN, 0, 0, 10));
+        assertTrue(queue.offer(TouchEventQueue.ACTION_CANCEL, 0, 0, 11));
+        assertTrue(queue.poll());
+        assertTrue(queue.offer(TouchEventQueue.ACTION_UP, 0, 0, 12));
+    }
+}
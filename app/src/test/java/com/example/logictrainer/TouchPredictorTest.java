@@ -0,0 +1,57 @@
+package com.example.logictrainer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TouchPredictorTest {
+    private TouchPredictor predictor;
+
+    @Before
+    public void setUp() {
+        predictor = new TouchPredictor();
+        predictor.setFrameIntervalMillis(16);
+    }
+
+    @Test
+    public void steadyMotion_extrapolatesOneFrameAhead() {
+        // 1 пиксель за миллисекунду по X, неподвижно по Y
+        for (int t = 0; t <= 32; t += 8) {
+            predictor.addSample(100 + t, 50, 1000 + t);
+        }
+        predictor.predict(1032);
+
+        assertEquals(148f, predictor.getPredictedX(), 0.01f);
+        assertEquals(50f, predictor.getPredictedY(), 0.01f);
+    }
+
+    @Test
+    public void horizonIsCapped() {
+        predictor.setFrameIntervalMillis(100);
+        predictor.addSample(0, 0, 0);
+        predictor.addSample(10, 0, 10);
+        predictor.predict(10);
+
+        assertEquals(30f, predictor.getPredictedX(), 0.01f); // Не дальше 20 мс
+    }
+
+    @Test
+    public void stoppedFinger_returnsLastSample() {
+        predictor.addSample(0, 0, 0);
+        predictor.addSample(10, 10, 10);
+
+        predictor.predict(200); // Последняя точка слишком старая
+        assertEquals(10f, predictor.getPredictedX(), 0f);
+        assertEquals(10f, predictor.getPredictedY(), 0f);
+    }
+
+    @Test
+    public void outOfOrderSamples_areIgnored() {
+        predictor.addSample(0, 0, 100);
+        predictor.addSample(50, 50, 90);
+
+        assertEquals(0f, predictor.getLastX(), 0f);
+        assertEquals(0f, predictor.getLastY(), 0f);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.ExactCoverSolver;
+import com.example.logictrainer.engine.PartitionGenerator;
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.Placement;
+
+import java.util.List;
+import java.util.Random;
+
+// Воспроизводимые наборы фигур для бенчмарков: разбиение поля и его решение
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static List<PieceShape> partition(int gridSize, int maxPieceSize, long seed) {
+        return new PartitionGenerator(gridSize, gridSize, maxPieceSize).generate(new Random(seed));
+    }
+
+    // Фигуры в ориентациях из решения; solution[i] относится к pieces[solution[i].getPieceIndex()]
+    static Piece[] solvedPieces(List<PieceShape> shapes, Placement[] solution) {
+        Piece[] pieces = new Piece[shapes.size()];
+        for (Placement placement : solution) {
+            pieces[placement.getPieceIndex()] =
+                    new Piece(shapes.get(placement.getPieceIndex()), placement.getOrientationIndex());
+        }
+        return pieces;
+    }
+
+    static Placement[] solve(int gridSize, List<PieceShape> shapes) {
+        Placement[] solution = new ExactCoverSolver(gridSize, gridSize, shapes).findSolution();
+        if (solution == null) {
+            throw new IllegalStateException("Разбиение должно быть решаемым");
+        }
+        return solution;
+    }
+}
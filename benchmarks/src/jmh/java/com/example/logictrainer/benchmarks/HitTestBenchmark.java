@@ -0,0 +1,95 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Поиск фигуры под пальцем, как в GameView при ACTION_DOWN и двойном касании:
+// обход фигур сверху вниз по z-порядку с PuzzlePiece.contains для каждой.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HitTestBenchmark {
+    private static final float CELL_SIZE = 100f;
+    private static final float VIEW_WIDTH = 1080f;
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"5", "8", "10"})
+    public int gridSize;
+
+    @Param({"2", "5"})
+    public int maxPieceSize;
+
+    private Piece[] pieces;
+    private float[] pieceX;
+    private float[] pieceY;
+    private float[] queryX;
+    private float[] queryY;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        List<PieceShape> shapes = Fixtures.partition(gridSize, maxPieceSize, 42L);
+        pieces = new Piece[shapes.size()];
+        pieceX = new float[pieces.length];
+        pieceY = new float[pieces.length];
+
+        // Раскладка лотка как в GameView.setPuzzlePieces
+        float startX = 50;
+        float startY = gridSize * CELL_SIZE + 20;
+        float maxY = startY;
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = new Piece(shapes.get(i));
+            if (startX + pieces[i].getCols() * CELL_SIZE > VIEW_WIDTH) {
+                startX = 50;
+                startY = maxY + 20;
+            }
+            pieceX[i] = startX;
+            pieceY[i] = startY;
+            startX += pieces[i].getCols() * CELL_SIZE + 20;
+            maxY = Math.max(maxY, startY + pieces[i].getRows() * CELL_SIZE);
+        }
+
+        Random random = new Random(7L);
+        queryX = new float[QUERY_COUNT];
+        queryY = new float[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queryX[i] = random.nextFloat() * VIEW_WIDTH;
+            queryY[i] = random.nextFloat() * maxY;
+        }
+    }
+
+    @Benchmark
+    public int hitTestTopmost() {
+        int q = query;
+        query = (q + 1) & (QUERY_COUNT - 1);
+        float x = queryX[q];
+        float y = queryY[q];
+        for (int i = pieces.length - 1; i >= 0; i--) {
+            if (pieces[i].containsPoint(x - pieceX[i], y - pieceY[i], CELL_SIZE)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public boolean containsSinglePiece() {
+        int q = query;
+        query = (q + 1) & (QUERY_COUNT - 1);
+        int i = q % pieces.length;
+        return pieces[i].containsPoint(queryX[q] - pieceX[i], queryY[q] - pieceY[i], CELL_SIZE);
+    }
+}
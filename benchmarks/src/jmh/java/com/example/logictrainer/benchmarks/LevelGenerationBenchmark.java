@@ -0,0 +1,53 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.GenerationMode;
+import com.example.logictrainer.engine.LevelGenerator;
+import com.example.logictrainer.engine.PieceShape;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Генерация уровня (LevelManager.getPiecesForCurrentLevel): новая генерация и попадание в кэш
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelGenerationBenchmark {
+    private static final int LEVEL = 2;
+
+    @Param({"5", "8", "10"})
+    public int gridSize;
+
+    @Param({"PARTITION", "RANDOM_VERIFIED"})
+    public GenerationMode mode;
+
+    private LevelGenerator levelGenerator;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        levelGenerator = new LevelGenerator(gridSize, gridSize);
+        levelGenerator.setGenerationMode(mode);
+        levelGenerator.setSeed(seed);
+    }
+
+    // Каждый вызов с новым seed — промах кэша и полная генерация
+    @Benchmark
+    public PieceShape[] generate() {
+        levelGenerator.setSeed(++seed);
+        return levelGenerator.getLevel(LEVEL);
+    }
+
+    // Рестарт уровня: тот же seed, набор берётся из кэша
+    @Benchmark
+    public PieceShape[] restartCached() {
+        return levelGenerator.getLevel(LEVEL);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.SolutionCounter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Офлайн-оценка пакета уровней (подсчёт всех решений) в пуле из threads потоков.
+// Время на пакет должно падать почти пропорционально числу потоков, пока их не больше ядер.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LevelRatingBenchmark {
+    private static final int LEVEL_COUNT = 16;
+    private static final long MAX_NODES = 1_000_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"5"})
+    public int gridSize;
+
+    private ForkJoinPool pool;
+    private SolutionCounter counter;
+    private final List<List<PieceShape>> levels = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        counter = new SolutionCounter(pool, MAX_NODES);
+        for (int i = 0; i < LEVEL_COUNT; i++) {
+            levels.add(Fixtures.partition(gridSize, 5, 42L + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<SolutionCounter.Result> rateBatch() {
+        return counter.countAll(gridSize, gridSize, levels);
+    }
+}
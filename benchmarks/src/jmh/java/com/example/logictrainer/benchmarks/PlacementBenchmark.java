@@ -0,0 +1,108 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.Board;
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.Placement;
+import com.example.logictrainer.engine.PuzzleState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Проверка вставки (бывший GameView.canPlacePiece) и проверка решения (checkPuzzleSolved).
+// Поле заполнено по решению, кроме одной фигуры, которую и пробуем поставить.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlacementBenchmark {
+    @Param({"5", "8", "10"})
+    public int gridSize;
+
+    @Param({"2", "5"})
+    public int maxPieceSize;
+
+    private PuzzleState state;
+    private Piece[] pieces;
+    private Placement[] solution;
+    private Piece freePiece;
+    private Placement freePlacement;
+    private int[] anchorRows;
+    private int[] anchorCols;
+    private int anchor;
+
+    @Setup
+    public void setUp() {
+        List<PieceShape> shapes = Fixtures.partition(gridSize, maxPieceSize, 42L);
+        solution = Fixtures.solve(gridSize, shapes);
+        pieces = Fixtures.solvedPieces(shapes, solution);
+
+        state = new PuzzleState(gridSize, gridSize);
+        state.reset(Arrays.asList(pieces));
+        for (int i = 0; i < solution.length - 1; i++) {
+            state.drop(pieces[solution[i].getPieceIndex()], solution[i].getRow(), solution[i].getCol());
+        }
+        freePlacement = solution[solution.length - 1];
+        freePiece = pieces[freePlacement.getPieceIndex()];
+
+        // Все якоря поля, включая выходящие за границы — как при отпускании фигуры в произвольном месте
+        anchorRows = new int[(gridSize + 2) * (gridSize + 2)];
+        anchorCols = new int[anchorRows.length];
+        int i = 0;
+        for (int r = -1; r <= gridSize; r++) {
+            for (int c = -1; c <= gridSize; c++) {
+                anchorRows[i] = r;
+                anchorCols[i] = c;
+                i++;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean canDrop() {
+        int i = anchor;
+        anchor = i + 1 == anchorRows.length ? 0 : i + 1;
+        return state.canDrop(freePiece, anchorRows[i], anchorCols[i]);
+    }
+
+    // Инкрементальное обновление: сброс фигуры в её клетку и снятие обратно
+    @Benchmark
+    public boolean dropAndLift() {
+        boolean dropped = state.drop(freePiece, freePlacement.getRow(), freePlacement.getCol());
+        state.lift(freePiece);
+        return dropped;
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return state.isSolved();
+    }
+
+    // Полная перестройка занятости по всем фигурам — прежняя схема на каждый ACTION_UP
+    @Benchmark
+    public boolean rebuildOccupancy() {
+        Board board = state.getBoard();
+        board.clear();
+        for (Placement placement : solution) {
+            Piece piece = pieces[placement.getPieceIndex()];
+            if (!board.canPlace(piece, placement.getRow(), placement.getCol())) {
+                return false;
+            }
+            board.place(piece, placement.getRow(), placement.getCol());
+        }
+        boolean full = board.isFull();
+
+        // Возвращаем исходное состояние без последней фигуры
+        board.remove(freePiece, freePlacement.getRow(), freePlacement.getCol());
+        return full;
+    }
+}
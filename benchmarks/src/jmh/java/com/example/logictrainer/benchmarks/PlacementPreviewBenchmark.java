@@ -0,0 +1,93 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.Placement;
+import com.example.logictrainer.engine.PlacementPreview;
+import com.example.logictrainer.engine.PuzzleState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Тень сброса на каждое перемещение пальца. Бюджет кадра 8.3–16.6 мс, проверка должна укладываться
+// в доли микросекунды. Траектория — ход по полю с шагом в 7 пикселей при клетке 100 пикселей,
+// так что клетка привязки меняется примерно на каждом 14-м событии, как при реальном перетаскивании.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlacementPreviewBenchmark {
+    private static final float CELL_SIZE = 100f;
+    private static final float STEP = 7f;
+
+    @Param({"5", "8", "10"})
+    public int gridSize;
+
+    @Param({"2", "5"})
+    public int maxPieceSize;
+
+    private PuzzleState state;
+    private Piece freePiece;
+    private final PlacementPreview preview = new PlacementPreview();
+    private float[] pathX;
+    private float[] pathY;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        List<PieceShape> shapes = Fixtures.partition(gridSize, maxPieceSize, 42L);
+        Placement[] solution = Fixtures.solve(gridSize, shapes);
+        Piece[] pieces = Fixtures.solvedPieces(shapes, solution);
+
+        // Половина фигур стоит на поле, перетаскиваем одну из оставшихся
+        state = new PuzzleState(gridSize, gridSize);
+        state.reset(Arrays.asList(pieces));
+        for (int i = 0; i < solution.length / 2; i++) {
+            state.drop(pieces[solution[i].getPieceIndex()], solution[i].getRow(), solution[i].getCol());
+        }
+        freePiece = pieces[solution[solution.length - 1].getPieceIndex()];
+
+        // Змейка по полю и немного за его границами
+        float extent = (gridSize + 1) * CELL_SIZE;
+        int perRow = (int) (extent / STEP);
+        int rowCount = (int) (extent / (CELL_SIZE / 2));
+        pathX = new float[perRow * rowCount];
+        pathY = new float[pathX.length];
+        int i = 0;
+        for (int r = 0; r < rowCount; r++) {
+            for (int c = 0; c < perRow; c++) {
+                float x = c * STEP - CELL_SIZE / 2;
+                pathX[i] = r % 2 == 0 ? x : extent - CELL_SIZE - x;
+                pathY[i] = r * CELL_SIZE / 2 - CELL_SIZE / 2;
+                i++;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean updateOnMove() {
+        int i = step;
+        step = i + 1 == pathX.length ? 0 : i + 1;
+        preview.update(state, freePiece, pathX[i], pathY[i], CELL_SIZE);
+        return preview.isLegal();
+    }
+
+    // Худший случай: клетка меняется на каждом событии, проверка занятости выполняется всегда
+    @Benchmark
+    public boolean updateEveryMoveRechecks() {
+        int i = step;
+        step = i + 1 == pathX.length ? 0 : i + 1;
+        preview.invalidate();
+        preview.update(state, freePiece, pathX[i], pathY[i], CELL_SIZE);
+        return preview.isLegal();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+import com.example.logictrainer.engine.Placement;
+import com.example.logictrainer.engine.PuzzleState;
+import com.example.logictrainer.engine.RegionAnalyzer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Поиск незаполнимых областей на каждое отпускание фигуры: должен укладываться в микросекунды.
+// Позиции — расстановки первых k фигур решения для всех k, то есть поле от пустого до почти полного.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegionAnalyzerBenchmark {
+    @Param({"5", "8", "10"})
+    public int gridSize;
+
+    @Param({"2", "5"})
+    public int maxPieceSize;
+
+    private RegionAnalyzer analyzer;
+    private long[][] occupancy;
+    private int[][] sizeCounts;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        List<PieceShape> shapes = Fixtures.partition(gridSize, maxPieceSize, 42L);
+        Placement[] solution = Fixtures.solve(gridSize, shapes);
+        Piece[] pieces = Fixtures.solvedPieces(shapes, solution);
+
+        PuzzleState state = new PuzzleState(gridSize, gridSize);
+        state.reset(Arrays.asList(pieces));
+        occupancy = new long[solution.length][gridSize];
+        sizeCounts = new int[solution.length][maxPieceSize + 1];
+        for (int k = 0; k < solution.length; k++) {
+            state.getBoard().copyRowMasks(occupancy[k]);
+            for (int i = k; i < solution.length; i++) {
+                sizeCounts[k][pieces[solution[i].getPieceIndex()].getCellCount()]++;
+            }
+            state.drop(pieces[solution[k].getPieceIndex()], solution[k].getRow(), solution[k].getCol());
+        }
+        analyzer = new RegionAnalyzer(gridSize, gridSize);
+    }
+
+    @Benchmark
+    public boolean findDeadRegions() {
+        int i = position;
+        position = i + 1 == occupancy.length ? 0 : i + 1;
+        return analyzer.findDeadRegions(occupancy[i], sizeCounts[i]);
+    }
+}
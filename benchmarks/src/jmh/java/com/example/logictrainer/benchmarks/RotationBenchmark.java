@@ -0,0 +1,46 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.Piece;
+import com.example.logictrainer.engine.PieceShape;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Поворот фигуры по двойному касанию (PuzzlePiece.rotate90Clockwise)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RotationBenchmark {
+    @Param({"2", "5"})
+    public int maxPieceSize;
+
+    private Piece[] pieces;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<PieceShape> shapes = Fixtures.partition(10, maxPieceSize, 42L);
+        pieces = new Piece[shapes.size()];
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = new Piece(shapes.get(i));
+        }
+    }
+
+    @Benchmark
+    public long rotate90Clockwise() {
+        int i = next;
+        next = i + 1 == pieces.length ? 0 : i + 1;
+        Piece piece = pieces[i];
+        piece.rotate90Clockwise();
+        return piece.getMask(10);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.logictrainer.benchmarks;
+
+import com.example.logictrainer.engine.ExactCoverSolver;
+import com.example.logictrainer.engine.PieceShape;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Проверка решаемости набора фигур (режим RANDOM_VERIFIED и LevelGenerator.isSolvable)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolverBenchmark {
+    @Param({"5", "8", "10"})
+    public int gridSize;
+
+    @Param({"2", "5"})
+    public int maxPieceSize;
+
+    private List<PieceShape> shapes;
+
+    @Setup
+    public void setUp() {
+        shapes = Fixtures.partition(gridSize, maxPieceSize, 42L);
+    }
+
+    @Benchmark
+    public boolean isSolvable() {
+        return new ExactCoverSolver(gridSize, gridSize, shapes).isSolvable();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.logictrainer.engine;
+
+import java.util.Arrays;
+
+// Занятость клеток игрового поля в виде битовых масок.
+// Поле до 64 клеток (например, 8x8) хранится в одном long, бит клетки = row * cols + col.
+// Для больших полей используется long[] — по одной маске на строку (не более 64 столбцов).
+// Маски размещений берутся готовыми из PlacementTable, без сдвигов на каждую проверку.
+public class Board {
+    private static final int MAX_SMALL_CELLS = 64;
+    private static final int MAX_COLS = 64;
+
+    private final int rows;
+    private final int cols;
+
+    private long bits;                // Маска поля, если rows * cols <= 64
+    private final long[] rowBits;     // Маски строк для больших полей, иначе null
+    private int filledCells;          // Счётчик занятых клеток, поддерживается в place/remove
+
+    public Board(int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || cols > MAX_COLS) {
+            throw new IllegalArgumentException("Неподдерживаемый размер поля: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+
+        rowBits = rows * cols <= MAX_SMALL_CELLS ? null : new long[rows];
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public int getFilledCells() { return filledCells; }
+
+    public void clear() {
+        bits = 0L;
+        filledCells = 0;
+        if (rowBits != null) {
+            Arrays.fill(rowBits, 0L);
+        }
+    }
+
+    // Фигура целиком помещается в поле при якоре (row, col)
+    public boolean fits(Piece piece, int row, int col) {
+        return row >= 0 && col >= 0
+                && row + piece.getRows() <= rows
+                && col + piece.getCols() <= cols;
+    }
+
+    // Таблица размещений текущей ориентации фигуры для этого поля
+    public PlacementTable placements(Piece piece) {
+        return piece.getOrientation().placements(rows, cols);
+    }
+
+    // Фигура помещается в поле и не пересекается с уже занятыми клетками
+    public boolean canPlace(Piece piece, int row, int col) {
+        PlacementTable table = placements(piece);
+        int p = table.indexOf(row, col);
+        return p >= 0 && canPlace(table, p);
+    }
+
+    // Размещение p таблицы этого поля не пересекается с занятыми клетками
+    public boolean canPlace(PlacementTable table, int p) {
+        if (rowBits == null) {
+            return (bits & table.getBoardMask(p)) == 0;
+        }
+        return table.isFree(p, rowBits);
+    }
+
+    // Занимает клетки фигуры; вызывающий код сам проверяет canPlace
+    public void place(Piece piece, int row, int col) {
+        PlacementTable table = placements(piece);
+        int p = table.indexOf(row, col);
+        filledCells += piece.getCellCount();
+        if (rowBits == null) {
+            bits |= table.getBoardMask(p);
+            return;
+        }
+        table.place(p, rowBits);
+    }
+
+    // Освобождает клетки фигуры, ранее занятые через place
+    public void remove(Piece piece, int row, int col) {
+        PlacementTable table = placements(piece);
+        int p = table.indexOf(row, col);
+        filledCells -= piece.getCellCount();
+        if (rowBits == null) {
+            bits &= ~table.getBoardMask(p);
+            return;
+        }
+        table.remove(p, rowBits);
+    }
+
+    public boolean isOccupied(int row, int col) {
+        if (rowBits == null) {
+            return (bits & (1L << (row * cols + col))) != 0;
+        }
+        return (rowBits[row] & (1L << col)) != 0;
+    }
+
+    // Маски занятых клеток по строкам (бит c — столбец c) в out длиной не меньше rows
+    public void copyRowMasks(long[] out) {
+        if (rowBits != null) {
+            System.arraycopy(rowBits, 0, out, 0, rows);
+            return;
+        }
+        long rowMask = cols == MAX_COLS ? -1L : (1L << cols) - 1;
+        for (int r = 0; r < rows; r++) {
+            out[r] = (bits >>> (r * cols)) & rowMask;
+        }
+    }
+
+    // Пересечений нет по построению (place только после canPlace), поэтому хватает счётчика
+    public boolean isFull() {
+        return filledCells == rows * cols;
+    }
+}
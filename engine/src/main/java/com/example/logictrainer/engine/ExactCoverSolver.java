@@ -0,0 +1,298 @@
+package com.example.logictrainer.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Точное покрытие поля набором фигур (алгоритм X Кнута на танцующих ссылках).
+// Столбцы: по одному на клетку поля (обязательные) и по одному на фигуру (вторичные,
+// фигура используется не более одного раза). Когда сумма клеток фигур равна площади поля,
+// покрытие всех клеток означает, что использованы все фигуры.
+// Узлы хранятся в параллельных int-массивах, поиск не выделяет память.
+// После каждого хода пустые области проверяются RegionAnalyzer: ветка с областью, которую не заполнить
+// оставшимися фигурами, отсекается сразу, а не после перебора всех её размещений.
+public class ExactCoverSolver {
+    private static final int ROOT = 0;
+
+    private final int rows;
+    private final int cols;
+    private final List<PieceShape> pieces;
+    private final int cellColumns;
+    private final boolean feasible; // false, если площадь фигур не совпадает с площадью поля
+
+    // Танцующие ссылки: заголовки столбцов занимают индексы 0..columnCount, затем узлы строк
+    private int[] left, right, up, down, column, rowOf;
+    private int[] columnSize;
+    private int nodeCount;
+
+    // Строки матрицы — возможные размещения фигур
+    private int[] rowPiece, rowOrientation;
+    private PlacementTable[] rowTable; // Таблица размещений ориентации и номер размещения в ней
+    private int[] rowPlacement;
+    private int rowCount;
+
+    // Одинаковые фигуры берутся по порядку: копия i допустима, только если копия sameShapeBefore[i] уже стоит
+    private final int[] sameShapeBefore;
+    private final boolean[] used;
+
+    // Занятые клетки по строкам и число ещё не поставленных фигур по размеру — для отсечения
+    private final RegionAnalyzer regionAnalyzer;
+    private final long[] occupiedRows;
+    private final int[] remainingBySize;
+
+    private final int[] solutionRows;
+    private int depth;
+    private long searchNodes;
+
+    public ExactCoverSolver(int rows, int cols, List<PieceShape> pieces) {
+        this.rows = rows;
+        this.cols = cols;
+        this.pieces = pieces;
+        this.cellColumns = rows * cols;
+
+        int pieceCount = pieces.size();
+        sameShapeBefore = new int[pieceCount];
+        used = new boolean[pieceCount];
+        solutionRows = new int[pieceCount];
+
+        int totalCells = 0;
+        int maxSize = 0;
+        for (int p = 0; p < pieceCount; p++) {
+            totalCells += pieces.get(p).getCellCount();
+            maxSize = Math.max(maxSize, pieces.get(p).getCellCount());
+            sameShapeBefore[p] = -1;
+            for (int q = p - 1; q >= 0; q--) {
+                if (pieces.get(q) == pieces.get(p)) { // Формы интернированы, достаточно сравнения ссылок
+                    sameShapeBefore[p] = q;
+                    break;
+                }
+            }
+        }
+        feasible = totalCells == cellColumns;
+
+        regionAnalyzer = new RegionAnalyzer(rows, cols);
+        occupiedRows = new long[rows];
+        remainingBySize = new int[maxSize + 1];
+
+        if (feasible) {
+            buildMatrix();
+        }
+    }
+
+    // Ищет разбиение поля; возвращает размещения всех фигур или null, если решения нет
+    public Placement[] findSolution() {
+        searchNodes = 0;
+        depth = 0;
+        Arrays.fill(occupiedRows, 0L);
+        Arrays.fill(remainingBySize, 0);
+        for (PieceShape shape : pieces) {
+            remainingBySize[shape.getCellCount()]++;
+        }
+        if (!feasible || !search()) {
+            return null;
+        }
+
+        Placement[] solution = new Placement[depth];
+        for (int i = 0; i < depth; i++) {
+            int r = solutionRows[i];
+            PlacementTable table = rowTable[r];
+            int p = rowPlacement[r];
+            solution[i] = new Placement(rowPiece[r], rowOrientation[r], table.getRow(p), table.getCol(p));
+        }
+        return solution;
+    }
+
+    public boolean isSolvable() {
+        return findSolution() != null;
+    }
+
+    // Число узлов дерева поиска в последнем запуске
+    public long getSearchNodes() {
+        return searchNodes;
+    }
+
+    public int getPlacementCount() {
+        return rowCount;
+    }
+
+    private boolean search() {
+        if (right[ROOT] == ROOT) {
+            return true;
+        }
+        searchNodes++;
+
+        // Эвристика MRV: клетка с наименьшим числом вариантов покрытия
+        int chosen = right[ROOT];
+        for (int c = right[chosen]; c != ROOT; c = right[c]) {
+            if (columnSize[c] < columnSize[chosen]) {
+                chosen = c;
+            }
+        }
+        if (columnSize[chosen] == 0) {
+            return false;
+        }
+
+        cover(chosen);
+        for (int node = down[chosen]; node != chosen; node = down[node]) {
+            int r = rowOf[node];
+            int piece = rowPiece[r];
+            int before = sameShapeBefore[piece];
+            if (before >= 0 && !used[before]) {
+                continue; // Та же форма с меньшим индексом ещё свободна — перестановки копий не перебираем
+            }
+
+            used[piece] = true;
+            solutionRows[depth++] = r;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            occupy(r);
+
+            if (!regionAnalyzer.findDeadRegions(occupiedRows, remainingBySize) && search()) {
+                return true;
+            }
+
+            release(r);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            depth--;
+            used[piece] = false;
+        }
+        uncover(chosen);
+        return false;
+    }
+
+    private void occupy(int r) {
+        rowTable[r].place(rowPlacement[r], occupiedRows);
+        remainingBySize[pieces.get(rowPiece[r]).getCellCount()]--;
+    }
+
+    private void release(int r) {
+        rowTable[r].remove(rowPlacement[r], occupiedRows);
+        remainingBySize[pieces.get(rowPiece[r]).getCellCount()]++;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    private void buildMatrix() {
+        int pieceCount = pieces.size();
+        int columnCount = cellColumns + pieceCount;
+
+        // Первый проход — подсчёт строк и узлов для точного размера массивов
+        int totalRows = 0;
+        int totalNodes = columnCount + 1;
+        for (PieceShape shape : pieces) {
+            for (int o = 0; o < shape.getOrientationCount(); o++) {
+                ShapeOrientation orientation = shape.getOrientation(o);
+                int anchors = orientation.placements(rows, cols).size();
+                totalRows += anchors;
+                totalNodes += anchors * (orientation.getCellCount() + 1);
+            }
+        }
+
+        left = new int[totalNodes];
+        right = new int[totalNodes];
+        up = new int[totalNodes];
+        down = new int[totalNodes];
+        column = new int[totalNodes];
+        rowOf = new int[totalNodes];
+        columnSize = new int[columnCount + 1];
+        rowPiece = new int[totalRows];
+        rowOrientation = new int[totalRows];
+        rowTable = new PlacementTable[totalRows];
+        rowPlacement = new int[totalRows];
+
+        // Заголовки: обязательные столбцы клеток в кольце корня, вторичные столбцы фигур замкнуты сами на себя
+        for (int c = 0; c <= columnCount; c++) {
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+            if (c <= cellColumns) {
+                left[c] = c == 0 ? cellColumns : c - 1;
+                right[c] = c == cellColumns ? 0 : c + 1;
+            } else {
+                left[c] = c;
+                right[c] = c;
+            }
+        }
+        nodeCount = columnCount + 1;
+
+        for (int p = 0; p < pieceCount; p++) {
+            PieceShape shape = pieces.get(p);
+            for (int o = 0; o < shape.getOrientationCount(); o++) {
+                PlacementTable table = shape.getOrientation(o).placements(rows, cols);
+                for (int i = 0; i < table.size(); i++) {
+                    addRow(p, o, table, i);
+                }
+            }
+        }
+    }
+
+    private void addRow(int piece, int orientationIndex, PlacementTable table, int placement) {
+        int r = rowCount++;
+        rowPiece[r] = piece;
+        rowOrientation[r] = orientationIndex;
+        rowTable[r] = table;
+        rowPlacement[r] = placement;
+
+        // Клетки размещения — биты готовых масок строк
+        long[] masks = table.getRowMasks();
+        int base = placement * table.getHeight();
+        int first = -1;
+        for (int i = 0; i < table.getHeight(); i++) {
+            long mask = masks[base + i];
+            int rowStart = 1 + (table.getRow(placement) + i) * cols;
+            while (mask != 0) {
+                first = appendNode(r, rowStart + Long.numberOfTrailingZeros(mask), first);
+                mask &= mask - 1;
+            }
+        }
+        appendNode(r, cellColumns + 1 + piece, first);
+    }
+
+    // Добавляет узел в конец столбца c и в кольцо строки, начинающейся с first
+    private int appendNode(int r, int c, int first) {
+        int node = nodeCount++;
+        column[node] = c;
+        rowOf[node] = r;
+
+        up[node] = up[c];
+        down[node] = c;
+        down[up[c]] = node;
+        up[c] = node;
+        columnSize[c]++;
+
+        if (first < 0) {
+            left[node] = node;
+            right[node] = node;
+            return node;
+        }
+        left[node] = left[first];
+        right[node] = first;
+        right[left[first]] = node;
+        left[first] = node;
+        return first;
+    }
+}
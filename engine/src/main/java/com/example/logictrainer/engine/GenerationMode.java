@@ -0,0 +1,7 @@
+package com.example.logictrainer.engine;
+
+// Способ генерации уровней начиная со второго
+public enum GenerationMode {
+    PARTITION,       // Разрезание поля на связные фигуры: решаемо по построению, O(клеток)
+    RANDOM_VERIFIED  // Случайные фигуры с проверкой решателем и повторными попытками
+}
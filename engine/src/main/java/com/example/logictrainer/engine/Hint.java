@@ -0,0 +1,46 @@
+package com.example.logictrainer.engine;
+
+// Ответ HintEngine: куда поставить одну из оставшихся фигур, либо почему подсказки нет
+public final class Hint {
+    public enum Status {
+        PLACEMENT,  // Поставить фигуру формы shape в ориентации orientationIndex в клетку (row, col)
+        SOLVED,     // Поле уже заполнено
+        DEAD_END,   // Из текущей расстановки решение не достижимо, нужно снять фигуры
+        GAVE_UP     // Превышен лимит перебора
+    }
+
+    private final Status status;
+    private final PieceShape shape;
+    private final int orientationIndex;
+    private final int row;
+    private final int col;
+
+    private Hint(Status status, PieceShape shape, int orientationIndex, int row, int col) {
+        this.status = status;
+        this.shape = shape;
+        this.orientationIndex = orientationIndex;
+        this.row = row;
+        this.col = col;
+    }
+
+    static Hint placement(PieceShape shape, int orientationIndex, int row, int col) {
+        return new Hint(Status.PLACEMENT, shape, orientationIndex, row, col);
+    }
+
+    static Hint of(Status status) {
+        return new Hint(status, null, -1, -1, -1);
+    }
+
+    public Status getStatus() { return status; }
+    public PieceShape getShape() { return shape; }
+    public int getOrientationIndex() { return orientationIndex; }
+    public int getRow() { return row; }
+    public int getCol() { return col; }
+
+    @Override
+    public String toString() {
+        return status == Status.PLACEMENT
+                ? "Hint{orientation=" + orientationIndex + ", row=" + row + ", col=" + col + "}"
+                : "Hint{" + status + "}";
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.logictrainer.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Подсказки по текущей расстановке: поиск с возвратом от первой свободной клетки и таблица транспозиций.
+// Позиция (занятые клетки + сколько фигур каждой формы осталось) хэшируется по Зобристу инкрементально,
+// для каждой разобранной позиции запоминается вердикт и ход, ведущий к решению. Поэтому следующая
+// подсказка из позиции, полученной по предыдущей, отвечается из таблицы без перебора.
+// Позиции с пустой областью, которую не заполнить оставшимися фигурами, отсекаются сразу (RegionAnalyzer).
+// Один экземпляр на уровень; не потокобезопасен — вызывается из одного фонового потока.
+public class HintEngine {
+    private static final int DEFAULT_TABLE_BITS = 16;
+    private static final long MAX_SEARCH_NODES = 2_000_000;
+    private static final long INTERRUPT_CHECK_MASK = 1023; // Прерывание потока проверяется раз в 1024 узла
+
+    private static final int VERDICT_SOLVABLE = 1;
+    private static final int VERDICT_UNSOLVABLE = 2;
+
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final int[] cellRow;   // Строка клетки
+    private final long[] cellBit;  // Бит клетки в маске её строки
+
+    // Различные формы уровня и их размещения, сгруппированные по первой клетке
+    private final PlacementIndex index;
+    private final long[] placementKeys; // XOR ключей Зобриста клеток размещения
+
+    // Ключи Зобриста: по клетке и по (форма, сколько осталось)
+    private final long[] cellKeys;
+    private final long[][] remainingKeys;
+
+    private final TranspositionTable table;
+    private final RegionAnalyzer regionAnalyzer;
+
+    // Состояние поиска: занятые клетки по строкам, остаток по формам и по числу клеток
+    private final long[] occupancy;
+    private final int[] remaining;
+    private final int[] remainingBySize;
+    private long hash;
+    private long searchNodes;
+    private boolean aborted;
+
+    // Снимок партии: снимается в потоке игры и передаётся в фоновый поток
+    public static final class Position {
+        private final int rows;
+        private final int cols;
+        private final long[] occupancy;
+        private final PieceShape[] remainingShapes;
+        private final PieceShape[] levelShapes;
+
+        private Position(int rows, int cols, long[] occupancy, PieceShape[] remainingShapes, PieceShape[] levelShapes) {
+            this.rows = rows;
+            this.cols = cols;
+            this.occupancy = occupancy;
+            this.remainingShapes = remainingShapes;
+            this.levelShapes = levelShapes;
+        }
+
+        public int getRows() { return rows; }
+        public int getCols() { return cols; }
+
+        // Формы всех фигур партии — по ним выбирается HintEngine уровня
+        public List<PieceShape> getLevelShapes() {
+            return Arrays.asList(levelShapes);
+        }
+
+        // Фигуры на поле дают занятые клетки, остальные (в лотке или в руке) — остаток
+        public static Position capture(PuzzleState state) {
+            int cols = state.getCols();
+            long[] cells = new long[state.getRows()];
+            List<PieceShape> left = new ArrayList<>();
+            PieceShape[] all = new PieceShape[state.getPieces().size()];
+            int i = 0;
+            for (Piece piece : state.getPieces()) {
+                all[i++] = piece.getPieceShape();
+                if (!piece.isOnBoard()) {
+                    left.add(piece.getPieceShape());
+                    continue;
+                }
+                boolean[][] shape = piece.getShape();
+                for (int r = 0; r < shape.length; r++) {
+                    for (int c = 0; c < shape[r].length; c++) {
+                        if (shape[r][c]) {
+                            cells[piece.getCellRow() + r] |= 1L << (piece.getCellCol() + c);
+                        }
+                    }
+                }
+            }
+            return new Position(state.getRows(), cols, cells, left.toArray(new PieceShape[0]), all);
+        }
+    }
+
+    public HintEngine(int rows, int cols, List<PieceShape> levelShapes) {
+        this(rows, cols, levelShapes, DEFAULT_TABLE_BITS);
+    }
+
+    public HintEngine(int rows, int cols, List<PieceShape> levelShapes, int tableBits) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cellCount = rows * cols;
+        cellRow = new int[cellCount];
+        cellBit = new long[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellRow[cell] = cell / cols;
+            cellBit[cell] = 1L << (cell % cols);
+        }
+
+        index = new PlacementIndex(rows, cols, levelShapes);
+        int shapeCount = index.shapes.length;
+
+        SplittableRandom random = new SplittableRandom(0x5eed_4a11L);
+        cellKeys = new long[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cellKeys[i] = random.nextLong();
+        }
+        remainingKeys = new long[shapeCount][];
+        for (int s = 0; s < shapeCount; s++) {
+            remainingKeys[s] = new long[index.shapeTotals[s] + 1];
+            for (int n = 0; n <= index.shapeTotals[s]; n++) {
+                remainingKeys[s][n] = random.nextLong();
+            }
+        }
+
+        placementKeys = new long[index.placementCount];
+        int[] cells = new int[index.maxShapeSize];
+        for (int p = 0; p < index.placementCount; p++) {
+            index.placementTable[p].cells(index.placementIndex[p], cells);
+            int size = index.shapeSizes[index.placementShape[p]];
+            for (int n = 0; n < size; n++) {
+                placementKeys[p] ^= cellKeys[cells[n]];
+            }
+        }
+
+        table = new TranspositionTable(tableBits);
+        regionAnalyzer = new RegionAnalyzer(rows, cols);
+        occupancy = new long[rows];
+        remaining = new int[shapeCount];
+        remainingBySize = new int[index.maxShapeSize + 1];
+    }
+
+    public long getSearchNodes() { return searchNodes; }
+    public TranspositionTable getTable() { return table; }
+
+    public Hint findHint(Position position) {
+        if (position.rows != rows || position.cols != cols) {
+            throw new IllegalArgumentException("Позиция с поля другого размера");
+        }
+        System.arraycopy(position.occupancy, 0, occupancy, 0, rows);
+        Arrays.fill(remaining, 0);
+        Arrays.fill(remainingBySize, 0);
+        for (PieceShape shape : position.remainingShapes) {
+            int s = index.indexOf(shape);
+            if (s < 0) {
+                throw new IllegalArgumentException("Фигура не из набора уровня");
+            }
+            remaining[s]++;
+            remainingBySize[index.shapeSizes[s]]++;
+        }
+        hash = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (isOccupied(cell)) {
+                hash ^= cellKeys[cell];
+            }
+        }
+        for (int s = 0; s < remaining.length; s++) {
+            hash ^= remainingKeys[s][remaining[s]];
+        }
+
+        if (index.firstEmptyCell(occupancy) < 0) {
+            return Hint.of(Hint.Status.SOLVED);
+        }
+
+        searchNodes = 0;
+        aborted = false;
+        long rootHash = hash;
+        boolean solvable = solve();
+        if (aborted) {
+            return Hint.of(Hint.Status.GAVE_UP);
+        }
+        if (!solvable) {
+            return Hint.of(Hint.Status.DEAD_END);
+        }
+
+        int p = table.move(rootHash);
+        return Hint.placement(index.shapes[index.placementShape[p]], index.placementOrientation[p],
+                index.getRow(p), index.getCol(p));
+    }
+
+    private boolean solve() {
+        int cell = index.firstEmptyCell(occupancy);
+        if (cell < 0) {
+            return true;
+        }
+
+        int verdict = table.verdict(hash);
+        if (verdict == VERDICT_SOLVABLE) {
+            return true;
+        }
+        if (verdict == VERDICT_UNSOLVABLE) {
+            return false;
+        }
+
+        // Прерванный поиск (подсказка уже не нужна) заканчивается так же, как исчерпавший бюджет узлов
+        if (++searchNodes > MAX_SEARCH_NODES
+                || ((searchNodes & INTERRUPT_CHECK_MASK) == 1 && Thread.currentThread().isInterrupted())) {
+            aborted = true;
+            return false;
+        }
+
+        long positionHash = hash;
+        if (regionAnalyzer.findDeadRegions(occupancy, remainingBySize)) {
+            table.store(positionHash, VERDICT_UNSOLVABLE, -1);
+            return false;
+        }
+
+        for (int p : index.byFirstCell[cell]) {
+            int s = index.placementShape[p];
+            if (remaining[s] == 0 || !index.isFree(p, occupancy)) {
+                continue;
+            }
+
+            place(p, s);
+            boolean solved = solve();
+            unplace(p, s);
+
+            if (solved) {
+                table.store(positionHash, VERDICT_SOLVABLE, p);
+                return true;
+            }
+            if (aborted) {
+                return false; // Неполный перебор ничего не доказывает, в таблицу не пишем
+            }
+        }
+
+        table.store(positionHash, VERDICT_UNSOLVABLE, -1);
+        return false;
+    }
+
+    private void place(int p, int s) {
+        index.place(p, occupancy);
+        hash ^= placementKeys[p];
+        hash ^= remainingKeys[s][remaining[s]];
+        remaining[s]--;
+        remainingBySize[index.shapeSizes[s]]--;
+        hash ^= remainingKeys[s][remaining[s]];
+    }
+
+    private void unplace(int p, int s) {
+        index.remove(p, occupancy);
+        hash ^= placementKeys[p];
+        hash ^= remainingKeys[s][remaining[s]];
+        remaining[s]++;
+        remainingBySize[index.shapeSizes[s]]++;
+        hash ^= remainingKeys[s][remaining[s]];
+    }
+
+    private boolean isOccupied(int cell) {
+        return (occupancy[cellRow[cell]] & cellBit[cell]) != 0;
+    }
+
+    // Таблица транспозиций фиксированного размера с прямой адресацией: новая запись вытесняет старую.
+    // Хранит полный 64-битный ключ, так что ложное совпадение возможно только при коллизии хэшей.
+    public static final class TranspositionTable {
+        private final long[] keys;
+        private final int[] entries; // (ход + 1) << 2 | вердикт; 0 — пусто
+        private final int mask;
+        private long hits;
+        private long stores;
+
+        TranspositionTable(int bits) {
+            keys = new long[1 << bits];
+            entries = new int[1 << bits];
+            mask = (1 << bits) - 1;
+        }
+
+        public int getCapacity() { return keys.length; }
+        public long getHits() { return hits; }
+        public long getStores() { return stores; }
+
+        int verdict(long key) {
+            int slot = slot(key);
+            if (entries[slot] != 0 && keys[slot] == key) {
+                hits++;
+                return entries[slot] & 3;
+            }
+            return 0;
+        }
+
+        int move(long key) {
+            int slot = slot(key);
+            return keys[slot] == key ? (entries[slot] >>> 2) - 1 : -1;
+        }
+
+        void store(long key, int verdict, int move) {
+            int slot = slot(key);
+            keys[slot] = key;
+            entries[slot] = (move + 1) << 2 | verdict;
+            stores++;
+        }
+
+        private int slot(long key) {
+            return (int) (key ^ (key >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.logictrainer.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// LRU-кэш сгенерированных уровней по ключу (уровень, seed, размер поля, режим генерации).
+// Хранит только общие неизменяемые формы; изменяемые фигуры создаются заново при каждой выдаче.
+// Доступ синхронизирован: кэш используется и из главного, и из фонового потока.
+public class LevelCache {
+    private final LinkedHashMap<Key, PieceShape[]> entries;
+    private int hits;
+    private int misses;
+
+    public LevelCache(int capacity) {
+        entries = new LinkedHashMap<Key, PieceShape[]>(capacity + 1, 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PieceShape[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized PieceShape[] get(Key key) {
+        PieceShape[] shapes = entries.get(key);
+        if (shapes != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return shapes;
+    }
+
+    public synchronized void put(Key key, PieceShape[] shapes) {
+        entries.put(key, shapes);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized int getHits() { return hits; }
+    public synchronized int getMisses() { return misses; }
+
+    public static final class Key {
+        private final int level;
+        private final long seed;
+        private final int rows;
+        private final int cols;
+        private final GenerationMode mode;
+
+        public Key(int level, long seed, int rows, int cols, GenerationMode mode) {
+            this.level = level;
+            this.seed = seed;
+            this.rows = rows;
+            this.cols = cols;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return level == other.level && seed == other.seed
+                    && rows == other.rows && cols == other.cols && mode == other.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(level, seed, rows, cols, mode);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.logictrainer.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+// Генерация наборов фигур для уровней. Результат — чистая функция (уровень, seed, размер поля, режим),
+// повторные запросы берутся из LRU-кэша. Потокобезопасен: вызывается и из главного, и из фонового потока.
+public class LevelGenerator {
+    private static final int MAX_GENERATION_ATTEMPTS = 50;
+    private static final int MAX_PIECE_SIZE = 5;
+    private static final int LEVEL_CACHE_SIZE = 16;
+    private static final long RATING_MAX_NODES = 1_000_000; // Оценка в игре: не дольше нескольких сотен мс
+
+    // Общие формы по ключу "тип:размер" — массивы клеток создаются один раз на процесс
+    private static final Map<String, PieceShape> SHAPE_CACHE = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int cols;
+    private volatile GenerationMode generationMode = GenerationMode.PARTITION;
+    private volatile long seed = new Random().nextLong();
+    private final LevelCache levelCache = new LevelCache(LEVEL_CACHE_SIZE);
+    private final SolutionCounter solutionCounter;
+    private final Map<LevelCache.Key, LevelRating> ratings = Collections.synchronizedMap(
+            new LinkedHashMap<LevelCache.Key, LevelRating>(LEVEL_CACHE_SIZE + 1, 1f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<LevelCache.Key, LevelRating> eldest) {
+                    return size() > LEVEL_CACHE_SIZE;
+                }
+            });
+
+    public LevelGenerator(int rows, int cols) {
+        this(rows, cols, new SolutionCounter(ForkJoinPool.commonPool(), RATING_MAX_NODES));
+    }
+
+    public LevelGenerator(int rows, int cols, SolutionCounter solutionCounter) {
+        this.rows = rows;
+        this.cols = cols;
+        this.solutionCounter = solutionCounter;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public void setGenerationMode(GenerationMode mode) {
+        this.generationMode = mode;
+    }
+
+    public GenerationMode getGenerationMode() {
+        return generationMode;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public LevelCache getLevelCache() {
+        return levelCache;
+    }
+
+    // Формы фигур уровня; массив общий с кэшем, изменять его нельзя
+    public PieceShape[] getLevel(int level) {
+        return getLevel(level, seed, generationMode);
+    }
+
+    // Сложность и лимит времени уровня; полный перебор дорогой, поэтому результат кэшируется как и сам уровень.
+    // seed и режим читаются один раз: оценка хранится под ключом того набора фигур, по которому посчитана.
+    public LevelRating rateLevel(int level) {
+        GenerationMode mode = generationMode;
+        long levelSeed = seed;
+        LevelCache.Key key = new LevelCache.Key(level, levelSeed, rows, cols, mode);
+        LevelRating rating = ratings.get(key);
+        if (rating == null) {
+            PieceShape[] shapes = getLevel(level, levelSeed, mode);
+            rating = LevelRating.of(solutionCounter.count(rows, cols, Arrays.asList(shapes)), shapes.length);
+            ratings.put(key, rating);
+        }
+        return rating;
+    }
+
+    private PieceShape[] getLevel(int level, long levelSeed, GenerationMode mode) {
+        LevelCache.Key key = new LevelCache.Key(level, levelSeed, rows, cols, mode);
+
+        PieceShape[] shapes = levelCache.get(key);
+        if (shapes == null) {
+            List<PieceShape> generated = generateLevel(level, mode, new Random(mixSeed(levelSeed, level)));
+            shapes = generated.toArray(new PieceShape[0]);
+            levelCache.put(key, shapes);
+        }
+        return shapes;
+    }
+
+    // Оценка пакета уровней (например, офлайн при подборе параметров): все уровни считаются параллельно
+    public List<LevelRating> rateLevels(int fromLevel, int toLevel) {
+        List<List<PieceShape>> levels = new ArrayList<>();
+        for (int level = fromLevel; level <= toLevel; level++) {
+            levels.add(Arrays.asList(getLevel(level)));
+        }
+        List<SolutionCounter.Result> results = solutionCounter.countAll(rows, cols, levels);
+        List<LevelRating> rated = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            rated.add(LevelRating.of(results.get(i), levels.get(i).size()));
+        }
+        return rated;
+    }
+
+    public boolean isSolvable(List<PieceShape> shapes) {
+        return new ExactCoverSolver(rows, cols, shapes).isSolvable();
+    }
+
+    // Чистая функция: одинаковые (level, mode, random) дают одинаковый набор фигур
+    private List<PieceShape> generateLevel(int level, GenerationMode mode, Random random) {
+        List<PieceShape> pieces = new ArrayList<>();
+        int totalCells = rows * cols; // Общее количество клеток в сетке
+        int targetCells = totalCells; // Цель - заполнить всё поле
+
+        if (level == 1) {
+            // Первый уровень: 4 квадратные фигуры и остальное - одиночные клетки
+            int squarePieces = 4; // Количество квадратов
+            for (int i = 0; i < squarePieces; i++) {
+                pieces.add(shape("Square", 4));
+                targetCells -= 4; // Каждый квадрат занимает 4 клетки
+            }
+
+            while (targetCells > 0) {
+                pieces.add(shape("SingleCell", 1));
+                targetCells -= 1; // Одна клетка на каждую фигуру
+            }
+        } else if (mode == GenerationMode.PARTITION) {
+            pieces.addAll(new PartitionGenerator(rows, cols, MAX_PIECE_SIZE).generate(random));
+        } else {
+            // Для следующих уровней: сложная генерация фигур, набор принимается только если им можно замостить поле
+            for (int attempt = 0; attempt < MAX_GENERATION_ATTEMPTS; attempt++) {
+                List<PieceShape> candidate = generateRandomPieces(random, targetCells);
+                if (isSolvable(candidate)) {
+                    return candidate;
+                }
+            }
+
+            // Запасной вариант: одиночные клетки заполняют поле всегда
+            while (targetCells > 0) {
+                pieces.add(shape("SingleCell", 1));
+                targetCells -= 1;
+            }
+        }
+
+        return pieces;
+    }
+
+    private List<PieceShape> generateRandomPieces(Random random, int targetCells) {
+        List<PieceShape> pieces = new ArrayList<>();
+        while (targetCells > 0) {
+            int shapeSize = Math.min(targetCells, random.nextInt(5) + 1); // Генерируем размер фигуры от 1 до 5 клеток
+            PieceShape piece = generateShapeForLevel(shapeSize, random);
+            pieces.add(piece);
+            targetCells -= piece.getCellCount();
+        }
+        return pieces;
+    }
+
+    // Seed конкретного уровня из общего seed, номера уровня и размера поля (финализатор MurmurHash3)
+    private long mixSeed(long seed, int level) {
+        long z = seed ^ ((long) level << 32) ^ ((long) rows << 16) ^ cols;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private PieceShape generateShapeForLevel(int size, Random random) {
+        int shapeType = random.nextInt(4); // 0 - квадрат, 1 - линия, 2 - L, 3 - одиночная клетка
+
+        switch (shapeType) {
+            case 0:
+                return shape("Square", size);
+            case 1:
+                return shape("Line", size);
+            case 2:
+                return shape("LShape", size);
+            default:
+                return shape("SingleCell", 1);
+        }
+    }
+
+    private static PieceShape shape(String type, int size) {
+        return SHAPE_CACHE.computeIfAbsent(type + ":" + size,
+                key -> PieceShape.intern(createShape(type, size)));
+    }
+
+    private static boolean[][] createShape(String type, int size) {
+        switch (type) {
+            case "Square":
+                return createSquareShape(size);
+            case "Line":
+                return createLineShape(size);
+            case "LShape":
+                return createLShape(size);
+            default:
+                return createSingleCellShape();
+        }
+    }
+
+    private static boolean[][] createSquareShape(int size) {
+        int side = (int) Math.sqrt(size); // Вычисляем размер стороны квадрата
+        boolean[][] square = new boolean[side][side];
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                square[r][c] = true;
+            }
+        }
+        return square;
+    }
+
+    private static boolean[][] createLineShape(int size) {
+        boolean[][] line = new boolean[1][size]; // Линия горизонтальная
+        for (int c = 0; c < size; c++) {
+            line[0][c] = true;
+        }
+        return line;
+    }
+
+    private static boolean[][] createLShape(int size) {
+        int rows = Math.max(2, size / 2); // Минимум 2 строки
+        int cols = Math.max(2, size - rows); // Минимум 2 столбца
+        boolean[][] lShape = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            lShape[r][0] = true; // Вертикальная часть
+        }
+        for (int c = 0; c < cols; c++) {
+            lShape[rows - 1][c] = true; // Горизонтальная часть
+        }
+        return lShape;
+    }
+
+    private static boolean[][] createSingleCellShape() {
+        return new boolean[][]{{true}};
+    }
+}
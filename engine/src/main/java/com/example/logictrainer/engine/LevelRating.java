@@ -0,0 +1,45 @@
+package com.example.logictrainer.engine;
+
+// Сложность уровня по полному перебору (SolutionCounter) и выведенный из неё лимит времени.
+// Сложность — log2(1 + узлов перебора на одно решение): сколько тупиковых веток приходится на каждое
+// решение. Лимит времени — время на раскладку фигур плюс время на обдумывание по сложности.
+public final class LevelRating {
+    private static final long TIME_PER_PIECE_MS = 3_000;
+    private static final long TIME_PER_DIFFICULTY_MS = 8_000;
+    private static final long MIN_TIME_LIMIT_MS = 30_000;
+    private static final long MAX_TIME_LIMIT_MS = 180_000;
+    private static final long TIME_LIMIT_STEP_MS = 5_000;
+
+    private final int pieceCount;
+    private final long solutions;
+    private final long searchNodes;
+    private final boolean exact;
+    private final double difficulty;
+    private final long timeLimitMillis;
+
+    private LevelRating(int pieceCount, long solutions, long searchNodes, boolean exact) {
+        this.pieceCount = pieceCount;
+        this.solutions = solutions;
+        this.searchNodes = searchNodes;
+        this.exact = exact;
+        this.difficulty = Math.log1p((double) searchNodes / Math.max(1, solutions)) / Math.log(2);
+
+        long limit = pieceCount * TIME_PER_PIECE_MS + Math.round(difficulty * TIME_PER_DIFFICULTY_MS);
+        limit = Math.round((double) limit / TIME_LIMIT_STEP_MS) * TIME_LIMIT_STEP_MS;
+        this.timeLimitMillis = Math.max(MIN_TIME_LIMIT_MS, Math.min(MAX_TIME_LIMIT_MS, limit));
+    }
+
+    public static LevelRating of(SolutionCounter.Result result, int pieceCount) {
+        return new LevelRating(pieceCount, result.getSolutions(), result.getSearchNodes(), result.isComplete());
+    }
+
+    public int getPieceCount() { return pieceCount; }
+    public long getSolutions() { return solutions; }
+    public long getSearchNodes() { return searchNodes; }
+
+    // false — перебор упёрся в бюджет узлов, счётчики и сложность оценены по его начальной части
+    public boolean isExact() { return exact; }
+
+    public double getDifficulty() { return difficulty; }
+    public long getTimeLimitMillis() { return timeLimitMillis; }
+}
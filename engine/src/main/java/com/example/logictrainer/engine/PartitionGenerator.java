@@ -0,0 +1,120 @@
+package com.example.logictrainer.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Разрезает поле на случайные связные фигуры (рост областей от свободных клеток).
+// Набор фигур замощает поле по построению, поиск не нужен; время линейно по числу клеток.
+// Экземпляр не потокобезопасен: каждому потоку — свой генератор.
+public class PartitionGenerator {
+    private static final int[] DR = {1, -1, 0, 0};
+    private static final int[] DC = {0, 0, 1, -1};
+
+    private final int rows;
+    private final int cols;
+    private final int maxPieceSize;
+
+    private final int[] owner;      // Номер области для каждой клетки, -1 если клетка свободна
+    private final int[] region;     // Клетки текущей области
+    private final int[] frontier;   // Свободные соседи текущей области (возможны повторы)
+
+    // Формы по нормализованной маске области: повторяющиеся фигуры не интернируются заново
+    private static final Map<Long, PieceShape> SHAPE_CACHE = new ConcurrentHashMap<>();
+
+    public PartitionGenerator(int rows, int cols, int maxPieceSize) {
+        if (maxPieceSize < 1 || maxPieceSize > 8) {
+            throw new IllegalArgumentException("Размер фигуры должен быть от 1 до 8: " + maxPieceSize);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.maxPieceSize = maxPieceSize;
+        this.owner = new int[rows * cols];
+        this.region = new int[maxPieceSize];
+        this.frontier = new int[maxPieceSize * 4];
+    }
+
+    // Фигуры разбиения в случайном порядке
+    public List<PieceShape> generate(Random random) {
+        Arrays.fill(owner, -1);
+        List<PieceShape> pieces = new ArrayList<>();
+
+        for (int start = 0; start < owner.length; start++) {
+            if (owner[start] >= 0) continue;
+            int size = growRegion(start, pieces.size(), 1 + random.nextInt(maxPieceSize), random);
+            pieces.add(shapeOf(size));
+        }
+
+        Collections.shuffle(pieces, random);
+        return pieces;
+    }
+
+    private int growRegion(int start, int id, int target, Random random) {
+        int size = 0;
+        int frontierSize = 0;
+        owner[start] = id;
+        region[size++] = start;
+        frontierSize = addNeighbours(start, frontierSize);
+
+        while (size < target && frontierSize > 0) {
+            int pick = random.nextInt(frontierSize);
+            int cell = frontier[pick];
+            frontier[pick] = frontier[--frontierSize];
+            if (owner[cell] >= 0) continue; // Клетка уже вошла в область через другого соседа
+
+            owner[cell] = id;
+            region[size++] = cell;
+            frontierSize = addNeighbours(cell, frontierSize);
+        }
+        return size;
+    }
+
+    private int addNeighbours(int cell, int frontierSize) {
+        int r = cell / cols;
+        int c = cell % cols;
+        for (int d = 0; d < 4; d++) {
+            int nr = r + DR[d];
+            int nc = c + DC[d];
+            if (nr >= 0 && nr < rows && nc >= 0 && nc < cols && owner[nr * cols + nc] < 0) {
+                frontier[frontierSize++] = nr * cols + nc;
+            }
+        }
+        return frontierSize;
+    }
+
+    // Нормализует область к её ограничивающему прямоугольнику и возвращает общую форму
+    private PieceShape shapeOf(int size) {
+        int minR = rows, minC = cols, maxR = 0, maxC = 0;
+        for (int i = 0; i < size; i++) {
+            int r = region[i] / cols;
+            int c = region[i] % cols;
+            minR = Math.min(minR, r);
+            maxR = Math.max(maxR, r);
+            minC = Math.min(minC, c);
+            maxC = Math.max(maxC, c);
+        }
+        int height = maxR - minR + 1;
+        int width = maxC - minC + 1;
+
+        // Фигура не больше 8 клеток умещается в прямоугольник 8x8: маска с шагом 8 однозначно задаёт форму
+        long key = 0L;
+        for (int i = 0; i < size; i++) {
+            key |= 1L << ((region[i] / cols - minR) * 8 + region[i] % cols - minC);
+        }
+
+        PieceShape shape = SHAPE_CACHE.get(key);
+        if (shape == null) {
+            boolean[][] cells = new boolean[height][width];
+            for (int i = 0; i < size; i++) {
+                cells[region[i] / cols - minR][region[i] % cols - minC] = true;
+            }
+            shape = PieceShape.intern(cells);
+            SHAPE_CACHE.put(key, shape);
+        }
+        return shape;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.logictrainer.engine;
+
+// Фигура в клеточных координатах: общая форма, текущая ориентация и клетка привязки на поле
+public class Piece {
+    private final PieceShape pieceShape; // Общая для всех фигур этой формы
+    private int orientationIndex;
+    private ShapeOrientation orientation; // Текущая ориентация, pieceShape.getOrientation(orientationIndex)
+
+    private int cellRow = -1, cellCol = -1; // Клетка привязки на поле, -1 если фигура не на поле
+
+    public Piece(PieceShape pieceShape) {
+        this(pieceShape, 0);
+    }
+
+    // Фигура в ориентации, совпадающей с cells
+    public Piece(boolean[][] cells) {
+        this(PieceShape.intern(cells), cells);
+    }
+
+    private Piece(PieceShape pieceShape, boolean[][] cells) {
+        this(pieceShape, pieceShape.indexOf(cells));
+    }
+
+    public Piece(PieceShape pieceShape, int orientationIndex) {
+        this.pieceShape = pieceShape;
+        setOrientation(orientationIndex);
+    }
+
+    public PieceShape getPieceShape() { return pieceShape; }
+    public ShapeOrientation getOrientation() { return orientation; }
+    public int getOrientationIndex() { return orientationIndex; }
+
+    public boolean[][] getShape() { return orientation.getCells(); }
+
+    public int getRows() { return orientation.getRows(); }
+    public int getCols() { return orientation.getCols(); }
+
+    public long[] getRowMasks() { return orientation.getRowMasks(); }
+    public int getCellCount() { return orientation.getCellCount(); }
+
+    // Маска фигуры для поля шириной stride: бит клетки (r, c) = r * stride + c
+    public long getMask(int stride) { return orientation.getMask(stride); }
+
+    // Попадает ли точка (относительно левого верхнего угла фигуры) в одну из её клеток
+    public boolean containsPoint(float localX, float localY, float cellSize) {
+        boolean[][] shape = getShape();
+        for (int r = 0; r < shape.length; r++) {
+            for (int c = 0; c < shape[r].length; c++) {
+                if (shape[r][c]) {
+                    float left = c * cellSize;
+                    float top = r * cellSize;
+                    float right = left + cellSize;
+                    float bottom = top + cellSize;
+                    if (localX >= left && localX <= right && localY >= top && localY <= bottom) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isOnBoard() { return cellRow >= 0; }
+    public int getCellRow() { return cellRow; }
+    public int getCellCol() { return cellCol; }
+
+    public void setCell(int row, int col) {
+        this.cellRow = row;
+        this.cellCol = col;
+    }
+
+    public void clearCell() {
+        cellRow = -1;
+        cellCol = -1;
+    }
+
+    // Повороты только переключают индекс в общей таблице ориентаций, без выделения памяти
+    public void rotate90Clockwise() {
+        setOrientation((orientationIndex + 1) % pieceShape.getOrientationCount());
+    }
+
+    public void rotate90CounterClockwise() {
+        int count = pieceShape.getOrientationCount();
+        setOrientation((orientationIndex + count - 1) % count);
+    }
+
+    private void setOrientation(int index) {
+        orientationIndex = index;
+        orientation = pieceShape.getOrientation(index);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.logictrainer.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Общая (flyweight) форма фигуры: все различные повороты вычисляются один раз при регистрации.
+// Фигуры одной формы ссылаются на один экземпляр и хранят только индекс ориентации.
+public final class PieceShape {
+    // Реестр форм по канонической записи (минимальной среди всех поворотов)
+    private static final Map<String, PieceShape> REGISTRY = new ConcurrentHashMap<>();
+
+    private final ShapeOrientation[] orientations; // orientations[i + 1] — поворот orientations[i] по часовой
+
+    private PieceShape(ShapeOrientation[] orientations) {
+        this.orientations = orientations;
+    }
+
+    // Возвращает общую форму для cells; массивы cells после вызова изменять нельзя
+    public static PieceShape intern(boolean[][] cells) {
+        boolean[][][] rotations = new boolean[4][][];
+        rotations[0] = cells;
+        for (int i = 1; i < 4; i++) {
+            rotations[i] = rotate90Clockwise(rotations[i - 1]);
+        }
+
+        String key = null;
+        int canonical = 0;
+        for (int i = 0; i < 4; i++) {
+            String candidate = encode(rotations[i]);
+            if (key == null || candidate.compareTo(key) < 0) {
+                key = candidate;
+                canonical = i;
+            }
+        }
+
+        // Нулевая ориентация — каноническая, чтобы порядок регистрации не влиял на результат
+        int first = canonical;
+        return REGISTRY.computeIfAbsent(key, k -> {
+            // Период вращения: квадрат — 1, линия — 2, остальные — 4
+            int period = 4;
+            for (int i = 1; i < 4; i++) {
+                if (encode(rotations[i]).equals(encode(rotations[0]))) {
+                    period = i;
+                    break;
+                }
+            }
+            ShapeOrientation[] orientations = new ShapeOrientation[period];
+            for (int i = 0; i < period; i++) {
+                orientations[i] = new ShapeOrientation(rotations[(first + i) % 4]);
+            }
+            return new PieceShape(orientations);
+        });
+    }
+
+    public int getOrientationCount() {
+        return orientations.length;
+    }
+
+    public ShapeOrientation getOrientation(int index) {
+        return orientations[index];
+    }
+
+    // Индекс ориентации, совпадающей с cells, или -1
+    public int indexOf(boolean[][] cells) {
+        for (int i = 0; i < orientations.length; i++) {
+            if (orientations[i].sameCells(cells)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getCellCount() {
+        return orientations[0].getCellCount();
+    }
+
+    private static boolean[][] rotate90Clockwise(boolean[][] shape) {
+        int rows = shape.length;
+        int cols = shape[0].length;
+        boolean[][] rotated = new boolean[cols][rows];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                rotated[c][rows - 1 - r] = shape[r][c];
+            }
+        }
+        return rotated;
+    }
+
+    private static String encode(boolean[][] shape) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(shape.length).append('x').append(shape[0].length).append(':');
+        for (boolean[] row : shape) {
+            for (boolean cell : row) {
+                sb.append(cell ? '1' : '0');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.logictrainer.engine;
+
+// Положение фигуры на поле: индекс фигуры в наборе уровня, ориентация и клетка якоря
+public final class Placement {
+    private final int pieceIndex;
+    private final int orientationIndex;
+    private final int row;
+    private final int col;
+
+    public Placement(int pieceIndex, int orientationIndex, int row, int col) {
+        this.pieceIndex = pieceIndex;
+        this.orientationIndex = orientationIndex;
+        this.row = row;
+        this.col = col;
+    }
+
+    public int getPieceIndex() { return pieceIndex; }
+    public int getOrientationIndex() { return orientationIndex; }
+    public int getRow() { return row; }
+    public int getCol() { return col; }
+
+    @Override
+    public String toString() {
+        return "Placement{piece=" + pieceIndex + ", orientation=" + orientationIndex
+                + ", row=" + row + ", col=" + col + "}";
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.logictrainer.engine;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Размещения набора фигур для перебора от первой свободной клетки: различные формы уровня с их
+// количеством и все размещения всех ориентаций (из PlacementTable), сгруппированные по первой клетке.
+// Неизменяем после построения, может использоваться из нескольких потоков.
+final class PlacementIndex {
+    final int rows;
+    final int cols;
+    final int cellCount;
+
+    // Различные формы и сколько фигур каждой формы в наборе
+    final PieceShape[] shapes;
+    final int[] shapeTotals;
+    final int[] shapeSizes;
+    final int maxShapeSize;
+    private final Map<PieceShape, Integer> shapeIndex = new IdentityHashMap<>();
+
+    // Размещение p: форма, ориентация, таблица ориентации и номер в ней
+    final int[] placementShape;
+    final int[] placementOrientation;
+    final PlacementTable[] placementTable;
+    final int[] placementIndex;
+    final int placementCount;
+
+    // byFirstCell[cell] — размещения, у которых первая (в порядке строк) клетка — cell
+    final int[][] byFirstCell;
+
+    PlacementIndex(int rows, int cols, List<PieceShape> levelShapes) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cellCount = rows * cols;
+
+        List<PieceShape> distinct = new ArrayList<>();
+        List<Integer> totals = new ArrayList<>();
+        for (PieceShape shape : levelShapes) {
+            Integer index = shapeIndex.get(shape);
+            if (index == null) {
+                shapeIndex.put(shape, distinct.size());
+                distinct.add(shape);
+                totals.add(1);
+            } else {
+                totals.set(index, totals.get(index) + 1);
+            }
+        }
+        shapes = distinct.toArray(new PieceShape[0]);
+        shapeTotals = new int[shapes.length];
+        shapeSizes = new int[shapes.length];
+        int maxSize = 0;
+        int count = 0;
+        for (int s = 0; s < shapes.length; s++) {
+            shapeTotals[s] = totals.get(s);
+            shapeSizes[s] = shapes[s].getCellCount();
+            maxSize = Math.max(maxSize, shapeSizes[s]);
+            for (int o = 0; o < shapes[s].getOrientationCount(); o++) {
+                count += shapes[s].getOrientation(o).placements(rows, cols).size();
+            }
+        }
+        maxShapeSize = maxSize;
+
+        placementCount = count;
+        placementShape = new int[count];
+        placementOrientation = new int[count];
+        placementTable = new PlacementTable[count];
+        placementIndex = new int[count];
+
+        int[] perCell = new int[cellCount];
+        int p = 0;
+        for (int s = 0; s < shapes.length; s++) {
+            for (int o = 0; o < shapes[s].getOrientationCount(); o++) {
+                PlacementTable table = shapes[s].getOrientation(o).placements(rows, cols);
+                for (int i = 0; i < table.size(); i++) {
+                    placementShape[p] = s;
+                    placementOrientation[p] = o;
+                    placementTable[p] = table;
+                    placementIndex[p] = i;
+                    perCell[table.firstCell(i)]++;
+                    p++;
+                }
+            }
+        }
+
+        byFirstCell = new int[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            byFirstCell[cell] = new int[perCell[cell]];
+            perCell[cell] = 0;
+        }
+        for (p = 0; p < count; p++) {
+            int cell = placementTable[p].firstCell(placementIndex[p]);
+            byFirstCell[cell][perCell[cell]++] = p;
+        }
+    }
+
+    // Индекс формы в shapes или -1, если такой формы в наборе нет
+    int indexOf(PieceShape shape) {
+        Integer s = shapeIndex.get(shape);
+        return s == null ? -1 : s;
+    }
+
+    boolean isFree(int p, long[] occupiedRows) {
+        return placementTable[p].isFree(placementIndex[p], occupiedRows);
+    }
+
+    void place(int p, long[] occupiedRows) {
+        placementTable[p].place(placementIndex[p], occupiedRows);
+    }
+
+    void remove(int p, long[] occupiedRows) {
+        placementTable[p].remove(placementIndex[p], occupiedRows);
+    }
+
+    int getRow(int p) {
+        return placementTable[p].getRow(placementIndex[p]);
+    }
+
+    int getCol(int p) {
+        return placementTable[p].getCol(placementIndex[p]);
+    }
+
+    // Первая свободная клетка как row * cols + col или -1, если поле заполнено
+    int firstEmptyCell(long[] occupiedRows) {
+        long fullRow = cols == 64 ? -1L : (1L << cols) - 1;
+        for (int r = 0; r < rows; r++) {
+            long free = ~occupiedRows[r] & fullRow;
+            if (free != 0) {
+                return r * cols + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+}
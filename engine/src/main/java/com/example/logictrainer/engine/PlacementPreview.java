@@ -0,0 +1,55 @@
+package com.example.logictrainer.engine;
+
+// Предпросмотр сброса во время перетаскивания: клетка, к которой привяжется фигура, и можно ли её туда поставить.
+// Вызывается на каждое перемещение, поэтому проверка (сдвиг маски и AND с занятостью поля)
+// выполняется только когда меняется клетка привязки.
+public class PlacementPreview {
+    private Piece piece;
+    private int orientationIndex;
+    private int row, col;
+    private boolean visible;
+    private boolean legal;
+    private boolean valid; // false — следующий update пересчитает всё заново
+
+    // Фигура взята, повёрнута или поле изменилось
+    public void invalidate() {
+        valid = false;
+    }
+
+    public void clear() {
+        piece = null;
+        visible = false;
+        valid = false;
+    }
+
+    // Левый верхний угол фигуры (x, y) в пикселях; true, если клетка привязки или вердикт изменились
+    public boolean update(PuzzleState state, Piece piece, float x, float y, float cellSize) {
+        int newRow = Math.round(y / cellSize);
+        int newCol = Math.round(x / cellSize);
+        if (valid && piece == this.piece && piece.getOrientationIndex() == orientationIndex
+                && newRow == row && newCol == col) {
+            return false;
+        }
+
+        boolean wasVisible = visible;
+        boolean wasLegal = legal;
+        int oldRow = row, oldCol = col;
+
+        this.piece = piece;
+        orientationIndex = piece.getOrientationIndex();
+        row = newRow;
+        col = newCol;
+        valid = true;
+        // Показываем только если привязанная фигура хотя бы частично на поле
+        visible = newRow < state.getRows() && newCol < state.getCols()
+                && newRow + piece.getRows() > 0 && newCol + piece.getCols() > 0;
+        legal = visible && state.canDrop(piece, newRow, newCol);
+
+        return visible != wasVisible || (visible && (legal != wasLegal || row != oldRow || col != oldCol));
+    }
+
+    public boolean isVisible() { return visible; }
+    public boolean isLegal() { return legal; }
+    public int getRow() { return row; }
+    public int getCol() { return col; }
+}
@@ -0,0 +1,133 @@
+package com.example.logictrainer.engine;
+
+// Все допустимые якоря одной ориентации на поле rows x cols с готовыми масками занятости.
+// Строится один раз на пару (ориентация, размер поля) и кэшируется в ShapeOrientation.placements.
+// Размещения пронумерованы по строкам якоря: p = row * getAnchorCols() + col. Для каждого хранятся
+// маски строк фигуры, уже сдвинутые на столбец якоря (плоский массив с шагом getHeight()),
+// и, для полей до 64 клеток, маска всего поля как в Board. Неизменяема, безопасна для общих потоков.
+public final class PlacementTable {
+    private final ShapeOrientation orientation;
+    private final int rows;
+    private final int cols;
+    private final int height;
+    private final int anchorRows;
+    private final int anchorCols;
+    private final int size;
+
+    private final int[] anchorRow;
+    private final int[] anchorCol;
+    private final long[] rowMasks;    // rowMasks[p * height + i] — строка anchorRow[p] + i
+    private final long[] boardMasks;  // Маска поля с битом r * cols + c, null для полей больше 64 клеток
+
+    PlacementTable(ShapeOrientation orientation, int rows, int cols) {
+        this.orientation = orientation;
+        this.rows = rows;
+        this.cols = cols;
+        this.height = orientation.getRows();
+        this.anchorRows = Math.max(0, rows - orientation.getRows() + 1);
+        this.anchorCols = Math.max(0, cols - orientation.getCols() + 1);
+        this.size = anchorRows * anchorCols;
+
+        anchorRow = new int[size];
+        anchorCol = new int[size];
+        rowMasks = new long[size * height];
+        boardMasks = rows * cols <= 64 ? new long[size] : null;
+
+        long[] shapeRows = orientation.getRowMasks();
+        long packed = boardMasks != null ? orientation.getMask(cols) : 0L;
+        int p = 0;
+        for (int row = 0; row < anchorRows; row++) {
+            for (int col = 0; col < anchorCols; col++) {
+                anchorRow[p] = row;
+                anchorCol[p] = col;
+                for (int i = 0; i < height; i++) {
+                    rowMasks[p * height + i] = shapeRows[i] << col;
+                }
+                if (boardMasks != null) {
+                    boardMasks[p] = packed << (row * cols + col);
+                }
+                p++;
+            }
+        }
+    }
+
+    public ShapeOrientation getOrientation() { return orientation; }
+    public int getBoardRows() { return rows; }
+    public int getBoardCols() { return cols; }
+
+    // Число размещений и строк фигуры (шаг в getRowMasks)
+    public int size() { return size; }
+    public int getHeight() { return height; }
+    public int getAnchorCols() { return anchorCols; }
+
+    public int getRow(int p) { return anchorRow[p]; }
+    public int getCol(int p) { return anchorCol[p]; }
+
+    // Номер размещения с якорем (row, col) или -1, если фигура там не помещается в поле
+    public int indexOf(int row, int col) {
+        if (row < 0 || col < 0 || row >= anchorRows || col >= anchorCols) {
+            return -1;
+        }
+        return row * anchorCols + col;
+    }
+
+    // Плоский массив масок строк; массив общий, изменять нельзя
+    public long[] getRowMasks() { return rowMasks; }
+
+    // Маска поля размещения p; только для полей до 64 клеток
+    public long getBoardMask(int p) { return boardMasks[p]; }
+
+    public boolean hasBoardMasks() { return boardMasks != null; }
+
+    // Клетки размещения p свободны в занятости по строкам occupiedRows
+    public boolean isFree(int p, long[] occupiedRows) {
+        int base = p * height;
+        int row = anchorRow[p];
+        for (int i = 0; i < height; i++) {
+            if ((occupiedRows[row + i] & rowMasks[base + i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void place(int p, long[] occupiedRows) {
+        int base = p * height;
+        int row = anchorRow[p];
+        for (int i = 0; i < height; i++) {
+            occupiedRows[row + i] |= rowMasks[base + i];
+        }
+    }
+
+    public void remove(int p, long[] occupiedRows) {
+        int base = p * height;
+        int row = anchorRow[p];
+        for (int i = 0; i < height; i++) {
+            occupiedRows[row + i] &= ~rowMasks[base + i];
+        }
+    }
+
+    // Первая в порядке строк клетка размещения p как row * cols + col
+    public int firstCell(int p) {
+        int base = p * height;
+        int i = 0;
+        while (rowMasks[base + i] == 0) {
+            i++;
+        }
+        return (anchorRow[p] + i) * cols + Long.numberOfTrailingZeros(rowMasks[base + i]);
+    }
+
+    // Клетки размещения p как row * cols + col в порядке строк; out длиной не меньше числа клеток фигуры
+    public void cells(int p, int[] out) {
+        int base = p * height;
+        int n = 0;
+        for (int i = 0; i < height; i++) {
+            long mask = rowMasks[base + i];
+            int rowStart = (anchorRow[p] + i) * cols;
+            while (mask != 0) {
+                out[n++] = rowStart + Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.logictrainer.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Состояние партии в клеточных координатах: поле, фигуры и правила взятия, сброса и поворота.
+// Поле обновляется инкрементально, проверка решения — O(1) по счётчику занятых клеток.
+public class PuzzleState {
+    private final Board board;
+    private final List<Piece> pieces = new ArrayList<>();
+
+    public PuzzleState(int rows, int cols) {
+        this.board = new Board(rows, cols);
+    }
+
+    public Board getBoard() { return board; }
+    public int getRows() { return board.getRows(); }
+    public int getCols() { return board.getCols(); }
+    public List<Piece> getPieces() { return pieces; }
+
+    // Новая партия: все фигуры вне поля
+    public void reset(List<? extends Piece> newPieces) {
+        board.clear();
+        pieces.clear();
+        for (Piece piece : newPieces) {
+            piece.clearCell();
+            pieces.add(piece);
+        }
+    }
+
+    // Снимает фигуру с поля (если она там была)
+    public void lift(Piece piece) {
+        if (piece.isOnBoard()) {
+            board.remove(piece, piece.getCellRow(), piece.getCellCol());
+            piece.clearCell();
+        }
+    }
+
+    public boolean canDrop(Piece piece, int row, int col) {
+        return board.canPlace(piece, row, col);
+    }
+
+    // Ставит снятую фигуру в клетку (row, col), если там свободно
+    public boolean drop(Piece piece, int row, int col) {
+        if (!board.canPlace(piece, row, col)) {
+            return false;
+        }
+        board.place(piece, row, col);
+        piece.setCell(row, col);
+        return true;
+    }
+
+    // Фигура на поле поворачивается только если после поворота она всё ещё помещается
+    public boolean rotate(Piece piece) {
+        if (!piece.isOnBoard()) {
+            piece.rotate90Clockwise();
+            return true;
+        }
+
+        int row = piece.getCellRow();
+        int col = piece.getCellCol();
+        lift(piece);
+        piece.rotate90Clockwise();
+        if (drop(piece, row, col)) {
+            return true;
+        }
+        // Возвращаем исходную ориентацию
+        piece.rotate90CounterClockwise();
+        drop(piece, row, col);
+        return false;
+    }
+
+    // Все фигуры на поле прошли canPlace, так что заполненность определяется счётчиком
+    public boolean isSolved() {
+        return board.isFull();
+    }
+}
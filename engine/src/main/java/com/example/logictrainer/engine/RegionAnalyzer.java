@@ -0,0 +1,170 @@
+package com.example.logictrainer.engine;
+
+import java.util.Arrays;
+
+// Связные области пустых клеток и проверка, можно ли каждую из них точно заполнить оставшимися фигурами:
+// размер области должен быть суммой размеров какого-то подмножества фигур. Заливка идёт по битовым
+// маскам строк, буферы переиспользуются — проверка не выделяет память и укладывается в микросекунды.
+public class RegionAnalyzer {
+    private final int rows;
+    private final int cols;
+    private final long fullRow;
+
+    private final long[] unvisited;  // Пустые клетки, ещё не отнесённые к области
+    private final long[] region;     // Текущая заливаемая область
+    private final long[] deadCells;  // Клетки областей, которые нельзя заполнить
+    private final long[] reachable;  // Бит s — сумма s достижима подмножеством оставшихся фигур
+    private int deadRegionCount;
+
+    public RegionAnalyzer(int rows, int cols) {
+        if (cols > 64) {
+            throw new IllegalArgumentException("Неподдерживаемый размер поля: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.fullRow = cols == 64 ? -1L : (1L << cols) - 1;
+        unvisited = new long[rows];
+        region = new long[rows];
+        deadCells = new long[rows];
+        reachable = new long[(rows * cols >>> 6) + 1];
+    }
+
+    // occupiedRows[r] — занятые клетки строки r (бит c — столбец c); sizeCounts[k] — сколько осталось
+    // фигур из k клеток. true, если хотя бы одну пустую область заполнить нельзя
+    public boolean findDeadRegions(long[] occupiedRows, int[] sizeCounts) {
+        int totalEmpty = 0;
+        for (int r = 0; r < rows; r++) {
+            unvisited[r] = ~occupiedRows[r] & fullRow;
+            totalEmpty += Long.bitCount(unvisited[r]);
+        }
+        Arrays.fill(deadCells, 0L);
+        deadRegionCount = 0;
+        if (totalEmpty == 0) {
+            return false;
+        }
+
+        computeReachableSums(sizeCounts, totalEmpty);
+
+        int r = 0;
+        while (r < rows) {
+            if (unvisited[r] == 0) {
+                r++;
+                continue;
+            }
+            int size = fill(r, Long.lowestOneBit(unvisited[r]));
+            if (!isReachable(size)) {
+                deadRegionCount++;
+                for (int i = 0; i < rows; i++) {
+                    deadCells[i] |= region[i];
+                }
+            }
+        }
+        return deadRegionCount > 0;
+    }
+
+    public int getDeadRegionCount() {
+        return deadRegionCount;
+    }
+
+    // Маски строк клеток из незаполнимых областей последней проверки; массив переиспользуется
+    public long[] getDeadCells() {
+        return deadCells;
+    }
+
+    public boolean isDead(int row, int col) {
+        return (deadCells[row] & (1L << col)) != 0;
+    }
+
+    // Заливка области из клетки seed строки startRow проходами вниз и вверх до стабилизации;
+    // возвращает размер области и убирает её клетки из unvisited
+    private int fill(int startRow, long seed) {
+        Arrays.fill(region, 0L);
+        region[startRow] = seed;
+        int top = startRow;
+        int bottom = startRow;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int r = top; r < rows; r++) {
+                long grown = grow(r);
+                if (grown != region[r]) {
+                    region[r] = grown;
+                    changed = true;
+                    bottom = Math.max(bottom, r);
+                } else if (r > bottom) {
+                    break;
+                }
+            }
+            for (int r = bottom; r >= 0; r--) {
+                long grown = grow(r);
+                if (grown != region[r]) {
+                    region[r] = grown;
+                    changed = true;
+                    top = Math.min(top, r);
+                } else if (r < top) {
+                    break;
+                }
+            }
+        }
+
+        int size = 0;
+        for (int r = top; r <= bottom; r++) {
+            unvisited[r] &= ~region[r];
+            size += Long.bitCount(region[r]);
+        }
+        return size;
+    }
+
+    // Строка области, расширенная на соседей по строке и по соседним строкам, в пределах пустых клеток
+    private long grow(int r) {
+        long bits = region[r];
+        long from = bits | (bits << 1) | (bits >>> 1);
+        if (r > 0) {
+            from |= region[r - 1];
+        }
+        if (r + 1 < rows) {
+            from |= region[r + 1];
+        }
+        // Расширение по строке до концов непрерывных отрезков пустых клеток
+        long empty = unvisited[r];
+        long grown = from & empty;
+        if (grown == bits) {
+            return bits;
+        }
+        long previous;
+        do {
+            previous = grown;
+            grown = (grown | (grown << 1) | (grown >>> 1)) & empty;
+        } while (grown != previous);
+        return grown | bits;
+    }
+
+    // Суммы подмножеств фигур (каждая фигура не более одного раза) до totalEmpty включительно
+    private void computeReachableSums(int[] sizeCounts, int totalEmpty) {
+        int words = (totalEmpty >>> 6) + 1;
+        Arrays.fill(reachable, 0, words, 0L);
+        reachable[0] = 1L;
+        for (int size = 1; size < sizeCounts.length; size++) {
+            for (int n = 0; n < sizeCounts[size]; n++) {
+                shiftOr(size, words);
+            }
+        }
+    }
+
+    // reachable |= reachable << shift в пределах words слов
+    private void shiftOr(int shift, int words) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int w = words - 1; w >= wordShift; w--) {
+            long moved = reachable[w - wordShift] << bitShift;
+            if (bitShift != 0 && w - wordShift - 1 >= 0) {
+                moved |= reachable[w - wordShift - 1] >>> (64 - bitShift);
+            }
+            reachable[w] |= moved;
+        }
+    }
+
+    private boolean isReachable(int sum) {
+        return (reachable[sum >>> 6] & (1L << sum)) != 0;
+    }
+}
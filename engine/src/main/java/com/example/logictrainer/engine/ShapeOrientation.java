@@ -0,0 +1,97 @@
+package com.example.logictrainer.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Неизменяемая ориентация фигуры. Экземпляры общие для всех фигур одной формы,
+// поэтому массив cells нельзя изменять.
+public final class ShapeOrientation {
+    private static final int MAX_STRIDE = 64;
+
+    private final boolean[][] cells;
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final long[] rowMasks;     // По одной маске на строку
+    private final long[] packedMasks;  // Фигура, упакованная с шагом строки stride (индекс — stride)
+
+    // Таблицы размещений по размеру поля; последняя использованная проверяется без обращения к карте
+    private final Map<Long, PlacementTable> placementTables = new ConcurrentHashMap<>();
+    private volatile PlacementTable lastPlacements;
+
+    ShapeOrientation(boolean[][] cells) {
+        this.cells = cells;
+        this.rows = cells.length;
+        this.cols = cells[0].length;
+
+        rowMasks = new long[rows];
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            long mask = 0L;
+            for (int c = 0; c < cols; c++) {
+                if (cells[r][c]) {
+                    mask |= 1L << c;
+                }
+            }
+            rowMasks[r] = mask;
+            count += Long.bitCount(mask);
+        }
+        cellCount = count;
+
+        // Маски для полей до 64 клеток; шаги, при которых фигура не влезает в long, остаются нулевыми
+        packedMasks = new long[MAX_STRIDE + 1];
+        for (int stride = cols; stride <= MAX_STRIDE; stride++) {
+            if ((rows - 1) * stride + cols > 64) {
+                break;
+            }
+            long mask = 0L;
+            for (int r = 0; r < rows; r++) {
+                mask |= rowMasks[r] << (r * stride);
+            }
+            packedMasks[stride] = mask;
+        }
+    }
+
+    public boolean[][] getCells() { return cells; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getCellCount() { return cellCount; }
+    public long[] getRowMasks() { return rowMasks; }
+
+    // Маска для поля шириной stride: бит клетки (r, c) = r * stride + c
+    public long getMask(int stride) {
+        return packedMasks[stride];
+    }
+
+    // Все допустимые якоря этой ориентации на поле rows x cols; строится при первом запросе
+    public PlacementTable placements(int rows, int cols) {
+        PlacementTable table = lastPlacements;
+        if (table == null || table.getBoardRows() != rows || table.getBoardCols() != cols) {
+            table = placementTables.computeIfAbsent((long) rows << 32 | cols,
+                    k -> new PlacementTable(this, rows, cols));
+            lastPlacements = table;
+        }
+        return table;
+    }
+
+    public boolean isFilled(int row, int col) {
+        return cells[row][col];
+    }
+
+    boolean sameCells(boolean[][] other) {
+        if (other.length != rows || other[0].length != cols) {
+            return false;
+        }
+        for (int r = 0; r < rows; r++) {
+            if (other[r].length != cols) {
+                return false;
+            }
+            for (int c = 0; c < cols; c++) {
+                if (other[r][c] != cells[r][c]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.logictrainer.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Подсчёт всех решений уровня и размера дерева перебора — основа оценки сложности (LevelRating).
+// Перебор от первой свободной клетки, фигуры одной формы взаимозаменяемы, так что каждое разбиение поля
+// считается один раз. Первые SPLIT_DEPTH уровней дерева разбиваются на задачи ForkJoinPool по одному
+// размещению, глубже — последовательный перебор в задаче. Пакет уровней отдаётся в тот же пул целиком,
+// поэтому кражей задач загружаются все ядра. Перебор ограничен бюджетом узлов на уровень: при его
+// исчерпании счётчики — нижние оценки (Result.isComplete() == false).
+public class SolutionCounter {
+    public static final long DEFAULT_MAX_NODES = 5_000_000;
+    private static final int SPLIT_DEPTH = 3;
+    private static final int NODE_BATCH = 1024; // Узлы сдаются в общий счётчик пачками
+
+    private final ForkJoinPool pool;
+    private final long maxNodes;
+
+    public SolutionCounter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_NODES);
+    }
+
+    public SolutionCounter(ForkJoinPool pool, long maxNodes) {
+        this.pool = pool;
+        this.maxNodes = maxNodes;
+    }
+
+    public static final class Result {
+        private final long solutions;
+        private final long searchNodes;
+        private final boolean complete;
+
+        Result(long solutions, long searchNodes, boolean complete) {
+            this.solutions = solutions;
+            this.searchNodes = searchNodes;
+            this.complete = complete;
+        }
+
+        public long getSolutions() { return solutions; }
+        public long getSearchNodes() { return searchNodes; }
+
+        // false — бюджет узлов исчерпан, перебор прерван
+        public boolean isComplete() { return complete; }
+    }
+
+    public Result count(int rows, int cols, List<PieceShape> shapes) {
+        Job job = new Job(rows, cols, shapes, maxNodes);
+        if (job.root != null) {
+            pool.invoke(job.root);
+        }
+        return job.result();
+    }
+
+    // Пакет уровней одного размера поля: все корневые задачи сразу, чтобы пул делил работу между ними
+    public List<Result> countAll(int rows, int cols, List<List<PieceShape>> levels) {
+        List<Job> jobs = new ArrayList<>(levels.size());
+        List<CountTask> roots = new ArrayList<>(levels.size());
+        for (List<PieceShape> shapes : levels) {
+            Job job = new Job(rows, cols, shapes, maxNodes);
+            jobs.add(job);
+            if (job.root != null) {
+                roots.add(job.root);
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(roots);
+            }
+        });
+
+        List<Result> results = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            results.add(job.result());
+        }
+        return results;
+    }
+
+    // Общие для всех задач одного уровня данные и счётчики
+    private static final class Job {
+        final PlacementIndex index;
+        final long maxNodes;
+        final LongAdder solutions = new LongAdder();
+        final AtomicLong nodes = new AtomicLong();
+        volatile boolean aborted;
+        final CountTask root;
+
+        Job(int rows, int cols, List<PieceShape> shapes, long maxNodes) {
+            this.maxNodes = maxNodes;
+            int area = 0;
+            for (PieceShape shape : shapes) {
+                area += shape.getCellCount();
+            }
+            if (area != rows * cols) {
+                index = null;
+                root = null; // Площади не совпадают — решений нет
+                return;
+            }
+            index = new PlacementIndex(rows, cols, shapes);
+            int[] remainingBySize = new int[index.maxShapeSize + 1];
+            for (int s = 0; s < index.shapes.length; s++) {
+                remainingBySize[index.shapeSizes[s]] += index.shapeTotals[s];
+            }
+            root = new CountTask(this, new long[rows], index.shapeTotals.clone(), remainingBySize, 0);
+        }
+
+        // Возвращает false, если бюджет исчерпан и перебор надо прекратить
+        boolean addNodes(long count) {
+            if (nodes.addAndGet(count) > maxNodes) {
+                aborted = true;
+            }
+            return !aborted;
+        }
+
+        Result result() {
+            return new Result(solutions.sum(), nodes.get(), !aborted);
+        }
+    }
+
+    private static final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Job job;
+        private final long[] occupancy;
+        private final int[] remaining;
+        private final int[] remainingBySize;
+        private final int depth;
+
+        // Состояние последовательного перебора
+        private RegionAnalyzer regionAnalyzer;
+        private long localSolutions;
+        private long localNodes;
+
+        CountTask(Job job, long[] occupancy, int[] remaining, int[] remainingBySize, int depth) {
+            this.job = job;
+            this.occupancy = occupancy;
+            this.remaining = remaining;
+            this.remainingBySize = remainingBySize;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            PlacementIndex index = job.index;
+            regionAnalyzer = new RegionAnalyzer(index.rows, index.cols);
+            if (depth >= SPLIT_DEPTH) {
+                search();
+                job.solutions.add(localSolutions);
+                job.addNodes(localNodes);
+                return;
+            }
+
+            int cell = index.firstEmptyCell(occupancy);
+            if (cell < 0) {
+                job.solutions.increment();
+                return;
+            }
+            if (job.aborted || !job.addNodes(1)) {
+                return;
+            }
+            if (regionAnalyzer.findDeadRegions(occupancy, remainingBySize)) {
+                return;
+            }
+
+            // Развилка: по задаче на каждое допустимое размещение в первой свободной клетке
+            List<CountTask> children = new ArrayList<>();
+            for (int p : index.byFirstCell[cell]) {
+                int s = index.placementShape[p];
+                if (remaining[s] == 0 || !index.isFree(p, occupancy)) {
+                    continue;
+                }
+                long[] childOccupancy = occupancy.clone();
+                int[] childRemaining = remaining.clone();
+                int[] childBySize = remainingBySize.clone();
+                index.place(p, childOccupancy);
+                childRemaining[s]--;
+                childBySize[index.shapeSizes[s]]--;
+                children.add(new CountTask(job, childOccupancy, childRemaining, childBySize, depth + 1));
+            }
+            invokeAll(children);
+        }
+
+        private void search() {
+            PlacementIndex index = job.index;
+            int cell = index.firstEmptyCell(occupancy);
+            if (cell < 0) {
+                localSolutions++;
+                return;
+            }
+            if (++localNodes == NODE_BATCH) {
+                localNodes = 0;
+                if (!job.addNodes(NODE_BATCH)) {
+                    return;
+                }
+            }
+            if (job.aborted || regionAnalyzer.findDeadRegions(occupancy, remainingBySize)) {
+                return;
+            }
+
+            for (int p : index.byFirstCell[cell]) {
+                int s = index.placementShape[p];
+                if (remaining[s] == 0 || !index.isFree(p, occupancy)) {
+                    continue;
+                }
+                index.place(p, occupancy);
+                remaining[s]--;
+                remainingBySize[index.shapeSizes[s]]--;
+
+                search();
+
+                index.remove(p, occupancy);
+                remaining[s]++;
+                remainingBySize[index.shapeSizes[s]]++;
+            }
+        }
+    }
+}
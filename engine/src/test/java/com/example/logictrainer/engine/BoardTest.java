@@ -0,0 +1,70 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoardTest {
+    private static final boolean[][] L_SHAPE = {
+            {true, false},
+            {true, true}
+    };
+
+    @Test
+    public void placeAndOverlap_smallBoard() {
+        Board board = new Board(5, 5);
+        Piece piece = new Piece(L_SHAPE);
+
+        assertTrue(board.canPlace(piece, 3, 3));
+        board.place(piece, 3, 3);
+        assertTrue(board.isOccupied(4, 4));
+        assertFalse(board.isOccupied(3, 4));
+        assertFalse(board.canPlace(piece, 3, 3));
+        assertFalse(board.canPlace(piece, 4, 4)); // выходит за границы
+
+        board.remove(piece, 3, 3);
+        assertTrue(board.canPlace(piece, 3, 3));
+    }
+
+    @Test
+    public void isFull_largeBoardUsesRowMasks() {
+        Board board = new Board(10, 10);
+        Piece line = new Piece(new boolean[][]{{true, true, true, true, true}});
+
+        for (int r = 0; r < 10; r++) {
+            assertTrue(board.canPlace(line, r, 0));
+            board.place(line, r, 0);
+            assertFalse(board.canPlace(line, r, 1));
+            board.place(line, r, 5);
+        }
+        assertTrue(board.isFull());
+    }
+
+    @Test
+    public void rotationRecomputesMask() {
+        Board board = new Board(3, 3);
+        Piece line = new Piece(new boolean[][]{{true, true, true}});
+
+        board.place(line, 0, 0);
+        line.rotate90Clockwise();
+        assertEquals(3, line.getRows());
+        assertFalse(board.canPlace(line, 0, 1));
+        board.clear();
+        assertTrue(board.canPlace(line, 0, 2));
+    }
+
+    @Test
+    public void copyRowMasks_sameForSmallAndLargeBoards() {
+        for (int size : new int[]{5, 10}) {
+            Board board = new Board(size, size);
+            board.place(new Piece(L_SHAPE), 1, 2);
+
+            long[] rows = new long[size];
+            board.copyRowMasks(rows);
+            assertEquals(0L, rows[0]);
+            assertEquals(0b100L, rows[1]);
+            assertEquals(0b1100L, rows[2]);
+            assertEquals(0L, rows[3]);
+        }
+    }
+}
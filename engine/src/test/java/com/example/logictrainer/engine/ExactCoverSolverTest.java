@@ -0,0 +1,98 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ExactCoverSolverTest {
+    private static final PieceShape SINGLE = PieceShape.intern(new boolean[][]{{true}});
+    private static final PieceShape SQUARE = PieceShape.intern(new boolean[][]{{true, true}, {true, true}});
+    private static final PieceShape LINE_3 = PieceShape.intern(new boolean[][]{{true, true, true}});
+
+    @Test
+    public void levelOneLayout_isSolvable() {
+        List<PieceShape> pieces = new ArrayList<>(Collections.nCopies(4, SQUARE));
+        pieces.addAll(Collections.nCopies(9, SINGLE));
+
+        Placement[] solution = new ExactCoverSolver(5, 5, pieces).findSolution();
+
+        assertNotNull(solution);
+        assertEquals(13, solution.length);
+        assertCoversBoard(5, 5, pieces, solution);
+    }
+
+    @Test
+    public void fiveSquaresOnFiveByFive_isNotSolvable() {
+        // 5 квадратов 2x2 + 5 клеток: площадь совпадает, но квадратов больше, чем помещается
+        List<PieceShape> pieces = new ArrayList<>(Collections.nCopies(5, SQUARE));
+        pieces.addAll(Collections.nCopies(5, SINGLE));
+
+        assertFalse(new ExactCoverSolver(5, 5, pieces).isSolvable());
+    }
+
+    @Test
+    public void areaMismatch_isNotSolvable() {
+        assertFalse(new ExactCoverSolver(3, 3, Arrays.asList(LINE_3, LINE_3)).isSolvable());
+    }
+
+    @Test
+    public void rotationsAreUsed() {
+        // Поле 3x2 закрывается двумя вертикальными линиями
+        Placement[] solution = new ExactCoverSolver(3, 2, Arrays.asList(LINE_3, LINE_3)).findSolution();
+
+        assertNotNull(solution);
+        assertCoversBoard(3, 2, Arrays.asList(LINE_3, LINE_3), solution);
+    }
+
+    // Случайные разбиения полей 5x5..10x10 решаются в среднем меньше чем за два узла перебора на клетку;
+    // время решения меряет SolverBenchmark
+    @Test
+    public void randomPartitions_5x5to10x10_stayWithinNodeBudget() {
+        Random random = new Random(42);
+        for (int size = 5; size <= 10; size++) {
+            PartitionGenerator generator = new PartitionGenerator(size, size, 5);
+            long totalNodes = 0;
+            int runs = 20;
+            for (int run = 0; run < runs; run++) {
+                List<PieceShape> pieces = generator.generate(random);
+                ExactCoverSolver solver = new ExactCoverSolver(size, size, pieces);
+                Placement[] solution = solver.findSolution();
+                totalNodes += solver.getSearchNodes();
+
+                assertNotNull(solution);
+                assertCoversBoard(size, size, pieces, solution);
+            }
+            assertTrue(size + "x" + size + ": " + totalNodes / runs + " узлов на решение",
+                    totalNodes / runs < 2L * size * size);
+        }
+    }
+
+    private static void assertCoversBoard(int rows, int cols, List<PieceShape> pieces, Placement[] solution) {
+        boolean[][] covered = new boolean[rows][cols];
+        boolean[] usedPieces = new boolean[pieces.size()];
+        for (Placement placement : solution) {
+            assertFalse(usedPieces[placement.getPieceIndex()]);
+            usedPieces[placement.getPieceIndex()] = true;
+            ShapeOrientation orientation = pieces.get(placement.getPieceIndex()).getOrientation(placement.getOrientationIndex());
+            for (int r = 0; r < orientation.getRows(); r++) {
+                for (int c = 0; c < orientation.getCols(); c++) {
+                    if (orientation.isFilled(r, c)) {
+                        assertFalse(covered[placement.getRow() + r][placement.getCol() + c]);
+                        covered[placement.getRow() + r][placement.getCol() + c] = true;
+                    }
+                }
+            }
+        }
+        for (boolean[] row : covered) {
+            for (boolean cell : row) {
+                assertTrue(cell);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HintEngineTest {
+    private static final boolean[][] LINE_2_CELLS = {{true, true}};
+
+    @Test
+    public void followingHints_solvesLevelAndReusesTable() {
+        List<PieceShape> shapes = new PartitionGenerator(8, 8, 5).generate(new Random(7));
+        PuzzleState state = newState(8, 8, shapes);
+        HintEngine engine = new HintEngine(8, 8, shapes);
+
+        for (int step = 0; step < shapes.size(); step++) {
+            Hint hint = engine.findHint(HintEngine.Position.capture(state));
+            assertEquals(Hint.Status.PLACEMENT, hint.getStatus());
+            if (step > 0) {
+                assertEquals(0, engine.getSearchNodes()); // Ответ из таблицы транспозиций
+            }
+            apply(state, hint);
+        }
+
+        assertTrue(state.isSolved());
+        assertEquals(Hint.Status.SOLVED, engine.findHint(HintEngine.Position.capture(state)).getStatus());
+    }
+
+    @Test
+    public void isolatedCell_isDeadEnd() {
+        // 1x4 двумя доминошками: доминошка в середине оставляет по одной клетке с краёв
+        PieceShape domino = PieceShape.intern(LINE_2_CELLS);
+        PuzzleState state = newState(1, 4, Arrays.asList(domino, domino));
+        assertTrue(state.drop(state.getPieces().get(0), 0, 1));
+
+        HintEngine engine = new HintEngine(1, 4, Arrays.asList(domino, domino));
+        assertEquals(Hint.Status.DEAD_END, engine.findHint(HintEngine.Position.capture(state)).getStatus());
+        assertEquals(1, engine.getSearchNodes()); // Отсечено по размеру областей, без перебора размещений
+    }
+
+    // Подсказка с пустого поля 8x8 для наборов из 15+ фигур
+    @Test
+    public void emptyBoard8x8_givesPlacement() {
+        Random random = new Random(42);
+        int levels = 0;
+        while (levels < 20) {
+            List<PieceShape> shapes = new PartitionGenerator(8, 8, 4).generate(random);
+            if (shapes.size() < 15) {
+                continue;
+            }
+            HintEngine engine = new HintEngine(8, 8, shapes);
+            PuzzleState state = newState(8, 8, shapes);
+            Hint hint = engine.findHint(HintEngine.Position.capture(state));
+            assertEquals(Hint.Status.PLACEMENT, hint.getStatus());
+            levels++;
+        }
+    }
+
+    // Прерванный поиск сдаётся и не портит таблицу: следующий запрос из той же позиции отвечает
+    @Test
+    public void interruptedSearch_givesUp() {
+        List<PieceShape> shapes = new PartitionGenerator(8, 8, 5).generate(new Random(7));
+        PuzzleState state = newState(8, 8, shapes);
+        HintEngine engine = new HintEngine(8, 8, shapes);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(Hint.Status.GAVE_UP, engine.findHint(HintEngine.Position.capture(state)).getStatus());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(Hint.Status.PLACEMENT, engine.findHint(HintEngine.Position.capture(state)).getStatus());
+    }
+
+    private static PuzzleState newState(int rows, int cols, List<PieceShape> shapes) {
+        List<Piece> pieces = new ArrayList<>();
+        for (PieceShape shape : shapes) {
+            pieces.add(new Piece(shape));
+        }
+        PuzzleState state = new PuzzleState(rows, cols);
+        state.reset(pieces);
+        return state;
+    }
+
+    // Ставит любую свободную фигуру нужной формы по подсказке
+    private static void apply(PuzzleState state, Hint hint) {
+        for (Piece piece : state.getPieces()) {
+            if (!piece.isOnBoard() && piece.getPieceShape() == hint.getShape()) {
+                while (piece.getOrientationIndex() != hint.getOrientationIndex()) {
+                    piece.rotate90Clockwise();
+                }
+                assertTrue(state.drop(piece, hint.getRow(), hint.getCol()));
+                return;
+            }
+        }
+        fail("Нет свободной фигуры для подсказки " + hint);
+    }
+}
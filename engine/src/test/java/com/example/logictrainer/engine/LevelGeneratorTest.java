@@ -0,0 +1,67 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LevelGeneratorTest {
+    @Test
+    public void sameSeed_generatesSameLevel() {
+        LevelGenerator first = new LevelGenerator(5, 5);
+        LevelGenerator second = new LevelGenerator(5, 5);
+        first.setSeed(12345L);
+        second.setSeed(12345L);
+
+        for (int level = 1; level <= 5; level++) {
+            assertSameShapes(first.getLevel(level), second.getLevel(level));
+        }
+        second.setGenerationMode(GenerationMode.RANDOM_VERIFIED);
+        first.setGenerationMode(GenerationMode.RANDOM_VERIFIED);
+        assertSameShapes(first.getLevel(4), second.getLevel(4));
+    }
+
+    @Test
+    public void repeatedLevel_isCacheHit() {
+        LevelGenerator levelGenerator = new LevelGenerator(5, 5);
+        levelGenerator.setSeed(1L);
+
+        PieceShape[] first = levelGenerator.getLevel(3);
+        PieceShape[] restarted = levelGenerator.getLevel(3);
+
+        assertEquals(1, levelGenerator.getLevelCache().getHits());
+        assertEquals(1, levelGenerator.getLevelCache().getMisses());
+        assertSame(first, restarted);
+    }
+
+    @Test
+    public void seedChange_missesCache() {
+        LevelGenerator levelGenerator = new LevelGenerator(5, 5);
+        levelGenerator.setSeed(1L);
+        levelGenerator.getLevel(2);
+        levelGenerator.setSeed(2L);
+        levelGenerator.getLevel(2);
+
+        assertEquals(0, levelGenerator.getLevelCache().getHits());
+        assertEquals(2, levelGenerator.getLevelCache().size());
+    }
+
+    @Test
+    public void rating_isCachedAndBoundsTimeLimit() {
+        LevelGenerator levelGenerator = new LevelGenerator(5, 5);
+        levelGenerator.setSeed(1L);
+
+        LevelRating rating = levelGenerator.rateLevel(1);
+        assertSame(rating, levelGenerator.rateLevel(1));
+        assertTrue(rating.isExact());
+        assertTrue(rating.getSolutions() > 0);
+        assertTrue(rating.getDifficulty() > 0);
+        assertTrue(rating.getTimeLimitMillis() >= 30_000 && rating.getTimeLimitMillis() <= 180_000);
+    }
+
+    private static void assertSameShapes(PieceShape[] expected, PieceShape[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], actual[i]);
+        }
+    }
+}
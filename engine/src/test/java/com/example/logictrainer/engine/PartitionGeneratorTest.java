@@ -0,0 +1,39 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PartitionGeneratorTest {
+    @Test
+    public void generate_coversBoardExactly() {
+        Random random = new Random(7);
+        for (int size = 3; size <= 10; size++) {
+            PartitionGenerator generator = new PartitionGenerator(size, size, 5);
+            for (int run = 0; run < 10; run++) {
+                List<PieceShape> pieces = generator.generate(random);
+
+                int cells = 0;
+                for (PieceShape piece : pieces) {
+                    assertTrue(piece.getCellCount() <= 5);
+                    cells += piece.getCellCount();
+                }
+                assertEquals(size * size, cells);
+                assertTrue(new ExactCoverSolver(size, size, pieces).isSolvable());
+            }
+        }
+    }
+
+    @Test
+    public void levelGenerator_partitionModeProducesSolvableLevels() {
+        LevelGenerator levelGenerator = new LevelGenerator(5, 5);
+
+        for (int level = 2; level < 22; level++) {
+            assertTrue(levelGenerator.isSolvable(Arrays.asList(levelGenerator.getLevel(level))));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PieceShapeTest {
+    @Test
+    public void intern_rotationsShareOneShape() {
+        PieceShape shape = PieceShape.intern(new boolean[][]{
+                {true, false},
+                {true, true}
+        });
+        PieceShape rotated = PieceShape.intern(new boolean[][]{
+                {true, true},
+                {true, false}
+        });
+
+        assertSame(shape, rotated);
+        assertEquals(4, shape.getOrientationCount());
+    }
+
+    @Test
+    public void orientationCount_matchesSymmetry() {
+        assertEquals(1, PieceShape.intern(new boolean[][]{{true, true}, {true, true}}).getOrientationCount());
+        assertEquals(2, PieceShape.intern(new boolean[][]{{true, true, true}}).getOrientationCount());
+    }
+
+    @Test
+    public void rotate_cyclesThroughSharedOrientations() {
+        Piece piece = new Piece(new boolean[][]{{true, true, true}});
+        ShapeOrientation horizontal = piece.getOrientation();
+
+        piece.rotate90Clockwise();
+        assertEquals(3, piece.getRows());
+        assertEquals(1, piece.getCols());
+
+        piece.rotate90Clockwise();
+        assertSame(horizontal, piece.getOrientation());
+
+        piece.rotate90CounterClockwise();
+        assertEquals(3, piece.getRows());
+    }
+}
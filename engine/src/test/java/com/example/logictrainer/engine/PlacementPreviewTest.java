@@ -0,0 +1,60 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PlacementPreviewTest {
+    private static final float CELL = 100f;
+    private static final boolean[][] LINE_2_CELLS = {{true, true}};
+
+    @Test
+    public void update_reportsChangesOnlyWhenSnappedCellOrVerdictChanges() {
+        PuzzleState state = new PuzzleState(3, 3);
+        Piece placed = new Piece(LINE_2_CELLS);
+        Piece dragged = new Piece(LINE_2_CELLS);
+        state.reset(Arrays.asList(placed, dragged));
+        state.drop(placed, 0, 0);
+
+        PlacementPreview preview = new PlacementPreview();
+        assertTrue(preview.update(state, dragged, 110, 90, CELL)); // Клетка (1, 1)
+        assertTrue(preview.isVisible());
+        assertTrue(preview.isLegal());
+
+        assertFalse(preview.update(state, dragged, 130, 70, CELL)); // Та же клетка
+
+        assertTrue(preview.update(state, dragged, 20, -20, CELL)); // (0, 0) занята
+        assertFalse(preview.isLegal());
+        assertEquals(0, preview.getRow());
+        assertEquals(0, preview.getCol());
+
+        assertTrue(preview.update(state, dragged, 220, 200, CELL)); // (2, 2): выходит за правый край
+        assertTrue(preview.isVisible());
+        assertFalse(preview.isLegal());
+
+        assertTrue(preview.update(state, dragged, 100, 500, CELL)); // Лоток под полем
+        assertFalse(preview.isVisible());
+        assertFalse(preview.update(state, dragged, 100, 600, CELL)); // Невидимая тень не перерисовывается
+    }
+
+    @Test
+    public void rotationAndInvalidate_forceRecheck() {
+        PuzzleState state = new PuzzleState(3, 3);
+        Piece dragged = new Piece(LINE_2_CELLS);
+        state.reset(Arrays.asList(dragged));
+
+        PlacementPreview preview = new PlacementPreview();
+        preview.update(state, dragged, 200, 0, CELL); // Горизонтально в (0, 2) не помещается
+        assertFalse(preview.isLegal());
+
+        dragged.rotate90Clockwise();
+        assertTrue(preview.update(state, dragged, 200, 0, CELL));
+        assertTrue(preview.isLegal());
+
+        preview.invalidate();
+        assertFalse(preview.update(state, dragged, 200, 0, CELL)); // Пересчитано, но ничего не изменилось
+        assertTrue(preview.isLegal());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PlacementTableTest {
+    private static final boolean[][] L_SHAPE = {
+            {true, false},
+            {true, true}
+    };
+
+    @Test
+    public void placements_cachedPerGridSize() {
+        ShapeOrientation orientation = PieceShape.intern(L_SHAPE).getOrientation(0);
+        PlacementTable table = orientation.placements(5, 5);
+
+        assertSame(table, orientation.placements(5, 5));
+        assertNotSame(table, orientation.placements(10, 10));
+        assertSame(table, orientation.placements(5, 5));
+        assertEquals(16, table.size());
+    }
+
+    @Test
+    public void indexOf_onlyAnchorsInsideBoard() {
+        PlacementTable table = PieceShape.intern(L_SHAPE).getOrientation(0).placements(3, 4);
+
+        assertEquals(0, table.indexOf(0, 0));
+        assertEquals(5, table.indexOf(1, 2));
+        assertEquals(1, table.getRow(5));
+        assertEquals(2, table.getCol(5));
+        assertEquals(-1, table.indexOf(2, 0)); // Нижняя строка фигуры вне поля
+        assertEquals(-1, table.indexOf(0, 3));
+        assertEquals(-1, table.indexOf(-1, 0));
+    }
+
+    @Test
+    public void masksMatchShapeCells() {
+        for (int size : new int[]{5, 10}) {
+            PieceShape shape = PieceShape.intern(new boolean[][]{{true, true, true}, {false, true, false}});
+            for (int o = 0; o < shape.getOrientationCount(); o++) {
+                ShapeOrientation orientation = shape.getOrientation(o);
+                PlacementTable table = orientation.placements(size, size);
+                int[] cells = new int[orientation.getCellCount()];
+                for (int p = 0; p < table.size(); p++) {
+                    table.cells(p, cells);
+                    int n = 0;
+                    for (int r = 0; r < orientation.getRows(); r++) {
+                        for (int c = 0; c < orientation.getCols(); c++) {
+                            if (orientation.isFilled(r, c)) {
+                                assertEquals((table.getRow(p) + r) * size + table.getCol(p) + c, cells[n++]);
+                            }
+                        }
+                    }
+                    assertEquals(cells[0], table.firstCell(p));
+
+                    long[] occupied = new long[size];
+                    table.place(p, occupied);
+                    assertFalse(table.isFree(p, occupied));
+                    table.remove(p, occupied);
+                    assertTrue(table.isFree(p, occupied));
+                    if (table.hasBoardMasks()) {
+                        assertEquals(orientation.getCellCount(), Long.bitCount(table.getBoardMask(p)));
+                        assertTrue((table.getBoardMask(p) & (1L << cells[0])) != 0);
+                    }
+                }
+            }
+        }
+    }
+}
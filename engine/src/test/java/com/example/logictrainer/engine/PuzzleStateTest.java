@@ -0,0 +1,62 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PuzzleStateTest {
+    private static final boolean[][] LINE_2_CELLS = {{true, true}};
+
+    @Test
+    public void dropAndLift_updateOccupancy() {
+        PuzzleState state = new PuzzleState(2, 2);
+        Piece top = new Piece(LINE_2_CELLS);
+        Piece bottom = new Piece(LINE_2_CELLS);
+        state.reset(Arrays.asList(top, bottom));
+
+        assertTrue(state.drop(top, 0, 0));
+        assertFalse(state.drop(bottom, 0, 0));
+        assertTrue(state.drop(bottom, 1, 0));
+        assertTrue(state.isSolved());
+
+        state.lift(top);
+        assertFalse(top.isOnBoard());
+        assertFalse(state.isSolved());
+    }
+
+    @Test
+    public void rotate_isRejectedWhenRotatedPieceDoesNotFit() {
+        PuzzleState state = new PuzzleState(2, 2);
+        Piece top = new Piece(LINE_2_CELLS);
+        Piece bottom = new Piece(LINE_2_CELLS);
+        state.reset(Arrays.asList(top, bottom));
+        state.drop(top, 0, 0);
+        state.drop(bottom, 1, 0);
+
+        assertFalse(state.rotate(top));
+        assertEquals(0, top.getOrientationIndex());
+        assertTrue(state.isSolved());
+
+        state.lift(bottom);
+        assertTrue(state.rotate(top));
+        assertEquals(2, top.getRows());
+    }
+
+    @Test
+    public void reset_clearsPreviousPlacements() {
+        PuzzleState state = new PuzzleState(2, 2);
+        Piece piece = new Piece(LINE_2_CELLS);
+        List<Piece> pieces = new ArrayList<>(Arrays.asList(piece));
+        state.reset(pieces);
+        state.drop(piece, 0, 0);
+
+        state.reset(pieces);
+
+        assertFalse(piece.isOnBoard());
+        assertEquals(0, state.getBoard().getFilledCells());
+    }
+}
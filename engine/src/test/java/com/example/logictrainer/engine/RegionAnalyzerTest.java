@@ -0,0 +1,53 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RegionAnalyzerTest {
+
+    @Test
+    public void isolatedCorner_deadWithoutSinglePiece() {
+        // Занятые (0,1) и (1,0) отрезают угол (0,0) от остальных шести клеток
+        long[] occupied = {0b010, 0b001, 0b000};
+        RegionAnalyzer analyzer = new RegionAnalyzer(3, 3);
+
+        int[] dominoes = {0, 0, 3};
+        assertTrue(analyzer.findDeadRegions(occupied, dominoes));
+        assertEquals(1, analyzer.getDeadRegionCount());
+        assertTrue(analyzer.isDead(0, 0));
+        assertFalse(analyzer.isDead(2, 2));
+        assertArrayEquals(new long[]{0b001, 0, 0}, analyzer.getDeadCells());
+
+        int[] withMonomino = {0, 1, 3};
+        assertFalse(analyzer.findDeadRegions(occupied, withMonomino));
+        assertArrayEquals(new long[3], analyzer.getDeadCells());
+    }
+
+    @Test
+    public void eachPieceFillsOnlyOneRegion() {
+        // Средний столбец занят: две области по 4 клетки
+        long[] occupied = {0b00100, 0b00100};
+        RegionAnalyzer analyzer = new RegionAnalyzer(2, 5);
+
+        int[] fourAndTwoDominoes = {0, 0, 2, 0, 1};
+        assertFalse(analyzer.findDeadRegions(occupied, fourAndTwoDominoes));
+
+        int[] threeAndFive = {0, 0, 0, 1, 0, 1}; // В сумме 8, но 4 не набирается
+        assertTrue(analyzer.findDeadRegions(occupied, threeAndFive));
+        assertEquals(2, analyzer.getDeadRegionCount());
+    }
+
+    @Test
+    public void snakeShapedRegion_isOneRegion() {
+        // Перегородки с чередующимися проходами: заливка должна пройти вниз и обратно вверх
+        long[] occupied = {0b00000, 0b01111, 0b00000, 0b11110, 0b00000};
+        int[] counts = new int[18];
+        counts[17] = 1;
+        RegionAnalyzer analyzer = new RegionAnalyzer(5, 5);
+        assertFalse(analyzer.findDeadRegions(occupied, counts));
+
+        long[] full = {0b11111, 0b11111, 0b11111, 0b11111, 0b11111};
+        assertFalse(analyzer.findDeadRegions(full, new int[1]));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.logictrainer.engine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SolutionCounterTest {
+    private static final PieceShape DOMINO = PieceShape.intern(new boolean[][]{{true, true}});
+    private static final PieceShape SINGLE = PieceShape.intern(new boolean[][]{{true}});
+
+    @Test
+    public void dominoTilings_matchKnownCounts() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            SolutionCounter counter = new SolutionCounter(pool, SolutionCounter.DEFAULT_MAX_NODES);
+
+            // Число замощений прямоугольника 2xn доминошками — числа Фибоначчи
+            assertEquals(3, counter.count(2, 3, Collections.nCopies(3, DOMINO)).getSolutions());
+            assertEquals(5, counter.count(2, 4, Collections.nCopies(4, DOMINO)).getSolutions());
+            SolutionCounter.Result result = counter.count(3, 4, Collections.nCopies(6, DOMINO));
+            assertEquals(11, result.getSolutions());
+            assertTrue(result.isComplete());
+            assertTrue(result.getSearchNodes() > 0);
+
+            // Одинаковые фигуры взаимозаменяемы: четыре одиночные клетки раскладываются единственным образом
+            assertEquals(1, counter.count(2, 2, Collections.nCopies(4, SINGLE)).getSolutions());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void areaMismatch_hasNoSolutions() {
+        SolutionCounter.Result result = new SolutionCounter().count(2, 3, Collections.nCopies(2, DOMINO));
+        assertEquals(0, result.getSolutions());
+        assertTrue(result.isComplete());
+    }
+
+    @Test
+    public void nodeBudget_marksResultIncomplete() {
+        List<PieceShape> shapes = new ArrayList<>(Collections.nCopies(10, DOMINO));
+        shapes.addAll(Collections.nCopies(16, SINGLE));
+        SolutionCounter.Result result = new SolutionCounter(ForkJoinPool.commonPool(), 10_000).count(6, 6, shapes);
+        assertFalse(result.isComplete());
+        assertTrue(result.getSolutions() > 0);
+    }
+
+    @Test
+    public void batch_matchesSingleCounts() {
+        LevelGenerator levelGenerator = new LevelGenerator(5, 5);
+        levelGenerator.setSeed(7L);
+        List<List<PieceShape>> levels = new ArrayList<>();
+        for (int level = 1; level <= 6; level++) {
+            levels.add(Arrays.asList(levelGenerator.getLevel(level)));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SolutionCounter counter = new SolutionCounter(pool, 200_000);
+            List<SolutionCounter.Result> batch = counter.countAll(5, 5, levels);
+            for (int i = 0; i < levels.size(); i++) {
+                SolutionCounter.Result single = counter.count(5, 5, levels.get(i));
+                if (single.isComplete()) {
+                    assertEquals(single.getSolutions(), batch.get(i).getSolutions());
+                    assertEquals(single.getSearchNodes(), batch.get(i).getSearchNodes());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
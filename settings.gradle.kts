@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "logictrainer"
 include(":app")
+include(":engine")
+include(":benchmarks")